@@ -0,0 +1,149 @@
+package com.hande.chemical_database.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates CSV files shaped like the chemical and study exports users upload:
+ * optional UTF-8 BOM, comma or semicolon delimiters, and a share of quoted fields
+ * containing the delimiter and escaped quotes. Output is deterministic per seed.
+ */
+public final class CsvBenchmarkData {
+
+    public enum Delimiter {
+        COMMA(','), SEMICOLON(';');
+
+        private final char character;
+
+        Delimiter(char character) {
+            this.character = character;
+        }
+
+        public char character() {
+            return character;
+        }
+    }
+
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+    private static final long SEED = 42L;
+
+    private static final String[] CHEMICAL_HEADERS = {
+            "Name", "CAS No", "Lot No", "Producer", "Storage", "Toxic State", "Responsible", "Order Date", "Weight"
+    };
+    private static final String[] STUDY_HEADERS = {
+            "Study Code", "Document Codes", "Material Type", "Study Level", "Risk Level",
+            "Info", "Number of Samples", "Object of Study", "Responsible Person", "Status"
+    };
+
+    private static final String[] PRODUCERS = {"Sigma-Aldrich", "Merck", "Carl Roth", "VWR", "Thermo Fisher, Inc."};
+    private static final String[] STORAGES = {"Cabinet A", "Cabinet B; shelf 2", "Fridge 4°C", "Freezer -20°C", "Acid cabinet"};
+    private static final String[] PEOPLE = {"Anna Schmidt", "Jonas Weber", "Lea Fischer", "Ali Yilmaz", "Marie Dubois"};
+    private static final String[] TOXIC = {"yes", "no", "true", "false", "toxic", "safe", ""};
+    private static final String[] MATERIALS = {"Polymer", "Textile", "Metal, coated", "Glass", "Composite"};
+    private static final String[] LEVELS = {"Level 1", "Level 2", "Level 3"};
+    private static final String[] RISKS = {"low", "medium", "high"};
+    private static final String[] STATUSES = {"pending", "in progress", "completed", "archived"};
+
+    private CsvBenchmarkData() {
+    }
+
+    public static byte[] chemicalsCsv(int rows, char delimiter, boolean bom) {
+        return toBytes(chemicalsLines(rows, delimiter), bom);
+    }
+
+    public static byte[] studiesCsv(int rows, char delimiter, boolean bom) {
+        return toBytes(studiesLines(rows, delimiter), bom);
+    }
+
+    /**
+     * Header line followed by the given number of chemical rows, names are unique
+     */
+    public static List<String> chemicalsLines(int rows, char delimiter) {
+        Random random = new Random(SEED);
+        List<String> lines = new ArrayList<>(rows + 1);
+        lines.add(String.join(String.valueOf(delimiter), CHEMICAL_HEADERS));
+
+        for (int i = 0; i < rows; i++) {
+            String name = i % 7 == 0
+                    ? "Acid " + i + ", \"fuming\""
+                    : "Chemical " + i;
+            String[] fields = {
+                    name,
+                    (random.nextInt(9_000_000) + 50) + "-" + String.format("%02d", random.nextInt(100)) + "-" + random.nextInt(10),
+                    "LOT-" + Integer.toHexString(random.nextInt()).toUpperCase(),
+                    pick(random, PRODUCERS),
+                    pick(random, STORAGES),
+                    pick(random, TOXIC),
+                    pick(random, PEOPLE),
+                    String.format("%02d.%02d.%d", random.nextInt(28) + 1, random.nextInt(12) + 1, 2015 + random.nextInt(10)),
+                    (random.nextInt(5000) + 1) + " g"
+            };
+            lines.add(joinRow(fields, delimiter));
+        }
+        return lines;
+    }
+
+    /**
+     * Header line followed by the given number of study rows, study codes are unique
+     */
+    public static List<String> studiesLines(int rows, char delimiter) {
+        Random random = new Random(SEED);
+        List<String> lines = new ArrayList<>(rows + 1);
+        lines.add(String.join(String.valueOf(delimiter), STUDY_HEADERS));
+
+        for (int i = 0; i < rows; i++) {
+            String[] fields = {
+                    String.format("ST-%07d", i),
+                    "P-" + random.nextInt(10_000) + " / R-" + random.nextInt(10_000),
+                    pick(random, MATERIALS),
+                    pick(random, LEVELS),
+                    pick(random, RISKS),
+                    i % 5 == 0 ? "Sample \"" + i + "\" re-tested; see report, page 2" : "",
+                    String.valueOf(random.nextInt(200) + 1),
+                    "Batch " + random.nextInt(1000),
+                    pick(random, PEOPLE),
+                    pick(random, STATUSES)
+            };
+            lines.add(joinRow(fields, delimiter));
+        }
+        return lines;
+    }
+
+    private static String joinRow(String[] fields, char delimiter) {
+        StringBuilder row = new StringBuilder(128);
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                row.append(delimiter);
+            }
+            row.append(quoteIfNeeded(fields[i], delimiter));
+        }
+        return row.toString();
+    }
+
+    private static String quoteIfNeeded(String value, char delimiter) {
+        if (value.indexOf(delimiter) < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    private static byte[] toBytes(List<String> lines, boolean bom) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(lines.size() * 96);
+        if (bom) {
+            out.writeBytes(UTF8_BOM);
+        }
+        for (String line : lines) {
+            out.writeBytes(line.getBytes(StandardCharsets.UTF_8));
+            out.write('\r');
+            out.write('\n');
+        }
+        return out.toByteArray();
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,59 @@
+package com.hande.chemical_database.controllers;
+
+import com.hande.chemical_database.benchmarks.CsvBenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CSV debug endpoint keeps its own copy of the delimiter detection and line
+ * splitting, benchmarked here over the same generated rows as the importers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvDebugParsingBenchmark {
+
+    private static final int SAMPLE_ROWS = 1024;
+
+    @Param({"COMMA", "SEMICOLON"})
+    private CsvBenchmarkData.Delimiter delimiter;
+
+    private CsvDebugController controller;
+    private String headerLine;
+    private String[] headers;
+    private String[] lines;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = new CsvDebugController();
+        List<String> chemicals = CsvBenchmarkData.chemicalsLines(SAMPLE_ROWS, delimiter.character());
+        headerLine = chemicals.get(0);
+        headers = controller.parseCSVLine(headerLine, delimiter.character());
+        lines = chemicals.subList(1, chemicals.size()).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public char detectDelimiter() {
+        return controller.detectDelimiter(headerLine);
+    }
+
+    @Benchmark
+    public void cleanHeaders(Blackhole blackhole) {
+        for (String header : headers) {
+            blackhole.consume(controller.cleanHeader(header));
+        }
+    }
+
+    @Benchmark
+    public String[] parseLine() {
+        index = (index + 1) & (SAMPLE_ROWS - 1);
+        return controller.parseCSVLine(lines[index], delimiter.character());
+    }
+}
@@ -0,0 +1,97 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.models.FuzzyMatch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy name lookup in the BK-tree behind GET /api/chemicals/fuzzy, at the name count
+ * the fuzzy search has to stay fast for. Names are built from chemistry word parts so
+ * their edit distances spread like real names do; every query is a stored name with one
+ * typo. maxDistance 3 is the largest radius the endpoint accepts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BkTreeSearchBenchmark {
+
+    private static final long SEED = 42L;
+    private static final int QUERIES = 1024;
+    // Same as DEFAULT_FUZZY_LIMIT in ChemicalsFilteringImpl
+    private static final int LIMIT = 10;
+    private static final String[] PARTS = {
+            "meth", "eth", "prop", "but", "pent", "hex", "yl", "chlor", "brom", "fluor", "ide", "acet",
+            "one", "ol", "benz", "ene", "amine", "sulf", "ate", "nitr", "phen", "oxy", "hydr", "ox",
+            "carb", "cyan", "iso", "di", "tri", "tetra", "sodium ", "potassium ", " acid", " hydrate"
+    };
+
+    @Param({"100000"})
+    private int names;
+
+    @Param({"1", "2", "3"})
+    private int maxDistance;
+
+    private BkTree tree;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void buildTree() {
+        Random random = new Random(SEED);
+        String[] values = new String[names];
+        tree = new BkTree();
+        for (int i = 0; i < names; i++) {
+            values[i] = randomName(random);
+            tree.put(i, values[i]);
+        }
+
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            queries[i] = withTypo(values[random.nextInt(names)], random);
+        }
+    }
+
+    @Benchmark
+    public List<FuzzyMatch> search() {
+        String query = queries[next];
+        next = (next + 1) % QUERIES;
+        return tree.search(query, maxDistance, LIMIT);
+    }
+
+    private static String randomName(Random random) {
+        StringBuilder name = new StringBuilder();
+        int parts = 3 + random.nextInt(4);
+        for (int i = 0; i < parts; i++) {
+            name.append(PARTS[random.nextInt(PARTS.length)]);
+        }
+        if (random.nextInt(4) == 0) {
+            name.append(' ').append(random.nextInt(1000));
+        }
+        return name.toString().trim();
+    }
+
+    // One substitution, deletion or insertion at a random position
+    private static String withTypo(String value, Random random) {
+        StringBuilder typo = new StringBuilder(value);
+        int position = random.nextInt(value.length());
+        char letter = (char) ('a' + random.nextInt(26));
+        switch (random.nextInt(3)) {
+            case 0:
+                typo.setCharAt(position, letter);
+                break;
+            case 1:
+                typo.deleteCharAt(position);
+                break;
+            default:
+                typo.insert(position, letter);
+                break;
+        }
+        return typo.toString();
+    }
+}
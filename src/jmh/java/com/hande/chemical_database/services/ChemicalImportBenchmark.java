@@ -0,0 +1,91 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.ChemicalDatabaseApplication;
+import com.hande.chemical_database.benchmarks.CsvBenchmarkData;
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.models.CsvImportReport;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end chemical import into an in-memory H2 database: parse, duplicate check,
+ * batched inserts and QR code assignment. Each invocation starts from an empty table.
+ * Rows per second = rows / (ms per op / 1000).
+ *
+ * idGeneration=IDENTITY maps Chemicals back to IDENTITY ids (benchmarks/chemicals-identity-orm.xml),
+ * which makes Hibernate insert row by row; compare it with SEQUENCE at rows=50000, e.g.
+ * -Djmh.args="ChemicalImportBenchmark.uploadChemicals -p rows=50000"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ChemicalImportBenchmark {
+
+    @Param({"10000", "50000"})
+    private int rows;
+
+    @Param({"SEQUENCE", "IDENTITY"})
+    private String idGeneration;
+
+    private ConfigurableApplicationContext context;
+    private ChemicalsUploadCsv chemicalsUploadCsv;
+    private JdbcTemplate jdbcTemplate;
+    private MockMultipartFile file;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:import-benchmark-" + idGeneration + ";DB_CLOSE_DELAY=-1",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.show-sql=false",
+                "spring.devtools.restart.enabled=false",
+                "app.qr.image-mode=render",
+                "app.csv.max-file-size=104857600",
+                "logging.level.root=WARN",
+                "logging.level.com.hande.chemical_database=WARN",
+                "logging.level.org.hibernate.SQL=WARN",
+                "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"));
+        if ("IDENTITY".equals(idGeneration)) {
+            properties.add("spring.jpa.mapping-resources=benchmarks/chemicals-identity-orm.xml");
+        }
+        context = new SpringApplicationBuilder(ChemicalDatabaseApplication.class)
+                .properties(properties.toArray(new String[0]))
+                .run();
+        chemicalsUploadCsv = context.getBean(ChemicalsUploadCsv.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        file = new MockMultipartFile("file", "chemicals.csv", "text/csv",
+                CsvBenchmarkData.chemicalsCsv(rows, ',', true));
+    }
+
+    @Setup(Level.Invocation)
+    public void emptyTables() {
+        jdbcTemplate.update("DELETE FROM qr_code_images");
+        jdbcTemplate.update("DELETE FROM chemicals");
+    }
+
+    @Benchmark
+    public Integer uploadChemicals() {
+        return chemicalsUploadCsv.uploadChemicals(file);
+    }
+
+    @Benchmark
+    public CsvImportReport uploadChemicalsInChunks() {
+        return chemicalsUploadCsv.uploadChemicalsInChunks(file, 1000, ImportMode.INSERT);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
@@ -0,0 +1,81 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.benchmarks.CsvBenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Whole-file parse of generated chemical and study CSVs, from bytes to entities,
+ * without touching the database. Compare ms/op across rows to spot non-linear parsers,
+ * and parallel=true against false for the fork-join parse of {@link ParallelCsvParser}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CsvFileParsingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int rows;
+
+    @Param({"COMMA", "SEMICOLON"})
+    private CsvBenchmarkData.Delimiter delimiter;
+
+    @Param({"true"})
+    private boolean bom;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private byte[] chemicalsCsv;
+    private byte[] studiesCsv;
+
+    private ChemicalsUploadCsvImpl chemicalsImporter;
+    private StudyListUploadCsvImpl studiesImporter;
+    private ParallelCsvParser parallelParser;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        chemicalsCsv = CsvBenchmarkData.chemicalsCsv(rows, delimiter.character(), bom);
+        studiesCsv = CsvBenchmarkData.studiesCsv(rows, delimiter.character(), bom);
+
+        // Parsing never reaches the repositories or transactions, without a parser the importers parse sequentially
+        parallelParser = parallel ? new ParallelCsvParser(true, 0, 1 << 20) : null;
+        chemicalsImporter = new ChemicalsUploadCsvImpl(null, null, null, null, null, null, parallelParser);
+        studiesImporter = new StudyListUploadCsvImpl(null, null, null, null, null, null, parallelParser);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (parallelParser != null) {
+            parallelParser.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int parseChemicalsFile(Blackhole blackhole) throws IOException {
+        try (Reader reader = reader(chemicalsCsv)) {
+            return chemicalsImporter.parseCsvRecords(reader, blackhole::consume);
+        }
+    }
+
+    @Benchmark
+    public int parseStudiesFile(Blackhole blackhole) throws IOException {
+        try (Reader reader = reader(studiesCsv)) {
+            return studiesImporter.parseCsvRecords(reader, blackhole::consume);
+        }
+    }
+
+    private static Reader reader(byte[] csv) {
+        return new InputStreamReader(new ByteArrayInputStream(csv), StandardCharsets.UTF_8);
+    }
+}
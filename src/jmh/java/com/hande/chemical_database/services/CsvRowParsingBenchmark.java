@@ -0,0 +1,141 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.benchmarks.CsvBenchmarkData;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of the import pipeline: delimiter detection, header normalization,
+ * tokenizing and row mapping, over a fixed sample of generated rows. Scores are per row;
+ * run with -prof gc to see the bytes allocated per row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsvRowParsingBenchmark {
+
+    private static final int SAMPLE_ROWS = 1024;
+
+    @Param({"COMMA", "SEMICOLON"})
+    private CsvBenchmarkData.Delimiter delimiter;
+
+    private ChemicalsUploadCsvImpl chemicalsImporter;
+    private StudyListUploadCsvImpl studiesImporter;
+
+    private char[] chemicalHeaderLine;
+    private String[] rawChemicalHeaders;
+    private String[] chemicalHeaders;
+    private char[] chemicalRowsCsv;
+    private CsvRow[] chemicalRows;
+
+    private String[] studyHeaders;
+    private char[] studyRowsCsv;
+    private CsvRow[] studyRows;
+
+    private final CsvRow row = new CsvRow();
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        chemicalsImporter = new ChemicalsUploadCsvImpl(null, null, null, null, null, null, null);
+        studiesImporter = new StudyListUploadCsvImpl(null, null, null, null, null, null, null);
+
+        List<String> chemicals = CsvBenchmarkData.chemicalsLines(SAMPLE_ROWS, delimiter.character());
+        chemicalHeaderLine = chemicals.get(0).toCharArray();
+        chemicalRowsCsv = join(chemicals.subList(1, chemicals.size()));
+        chemicalRows = tokenize(chemicalRowsCsv);
+        rawChemicalHeaders = tokenize(chemicalHeaderLine)[0].toArray();
+        chemicalHeaders = new String[rawChemicalHeaders.length];
+        for (int i = 0; i < rawChemicalHeaders.length; i++) {
+            chemicalHeaders[i] = chemicalsImporter.normalizeHeader(rawChemicalHeaders[i]);
+        }
+
+        List<String> studies = CsvBenchmarkData.studiesLines(SAMPLE_ROWS, delimiter.character());
+        studyRowsCsv = join(studies.subList(1, studies.size()));
+        studyRows = tokenize(studyRowsCsv);
+        studyHeaders = tokenize(studies.get(0).toCharArray())[0].toArray();
+        for (int i = 0; i < studyHeaders.length; i++) {
+            studyHeaders[i] = studiesImporter.cleanHeader(studyHeaders[i]);
+        }
+    }
+
+    @Benchmark
+    public char detectDelimiter() {
+        return CsvTokenizer.detectDelimiter(chemicalHeaderLine, 0, chemicalHeaderLine.length);
+    }
+
+    @Benchmark
+    public void normalizeHeaders(Blackhole blackhole) {
+        for (String header : rawChemicalHeaders) {
+            blackhole.consume(chemicalsImporter.normalizeHeader(header));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_ROWS)
+    public void tokenizeChemicalRows(Blackhole blackhole) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new CharArrayReader(chemicalRowsCsv), delimiter.character());
+        while (tokenizer.next(row)) {
+            blackhole.consume(row.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_ROWS)
+    public void mapChemicalRows(Blackhole blackhole) {
+        for (CsvRow chemicalRow : chemicalRows) {
+            blackhole.consume(chemicalsImporter.createChemicalFromCSVRow(chemicalHeaders, chemicalRow));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_ROWS)
+    public void tokenizeAndMapChemicalRows(Blackhole blackhole) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new CharArrayReader(chemicalRowsCsv), delimiter.character());
+        while (tokenizer.next(row)) {
+            blackhole.consume(chemicalsImporter.createChemicalFromCSVRow(chemicalHeaders, row));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_ROWS)
+    public void tokenizeStudyRows(Blackhole blackhole) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new CharArrayReader(studyRowsCsv), delimiter.character());
+        while (tokenizer.next(row)) {
+            blackhole.consume(row.size());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLE_ROWS)
+    public void mapStudyRows(Blackhole blackhole) {
+        for (CsvRow studyRow : studyRows) {
+            blackhole.consume(studiesImporter.createStudyFromCsvRow(studyHeaders, studyRow));
+        }
+    }
+
+    private char[] join(List<String> lines) {
+        return (String.join("\r\n", lines) + "\r\n").toCharArray();
+    }
+
+    // One CsvRow per record so mapping can be measured without tokenizing
+    private CsvRow[] tokenize(char[] csv) throws IOException {
+        CsvTokenizer tokenizer = new CsvTokenizer(new CharArrayReader(csv), delimiter.character());
+        CsvRow[] rows = new CsvRow[SAMPLE_ROWS];
+        int count = 0;
+        CsvRow next = new CsvRow();
+        while (count < rows.length && tokenizer.next(next)) {
+            rows[count++] = next;
+            next = new CsvRow();
+        }
+        return Arrays.copyOf(rows, count);
+    }
+}
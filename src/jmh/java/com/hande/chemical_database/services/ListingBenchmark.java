@@ -0,0 +1,119 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.ChemicalDatabaseApplication;
+import com.hande.chemical_database.mappers.ChemicalMapper;
+import com.hande.chemical_database.mappers.StudyListMapper;
+import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.StudyListDTO;
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Full listings over an in-memory H2 database: the old path (findAll entities, then
+ * MapStruct) against the DTO constructor projections behind getAllChemicals and
+ * getAllStudyLists. The entity path runs in a read-write transaction like the old
+ * service code did, so Hibernate keeps snapshots for dirty checking.
+ *
+ * Heap per listing: add the GC profiler and compare gc.alloc.rate.norm,
+ * e.g. -Djmh.args="ListingBenchmark -prof gc"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class ListingBenchmark {
+
+    @Param({"100000"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private ChemicalRepo chemicalRepo;
+    private StudyListRepo studyListRepo;
+    private ChemicalMapper chemicalMapper;
+    private StudyListMapper studyListMapper;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(ChemicalDatabaseApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:listing-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.show-sql=false",
+                        "spring.devtools.restart.enabled=false",
+                        "app.search.index.enabled=false",
+                        "app.suggest.enabled=false",
+                        "logging.level.root=WARN",
+                        "logging.level.com.hande.chemical_database=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN")
+                .run();
+        chemicalRepo = context.getBean(ChemicalRepo.class);
+        studyListRepo = context.getBean(StudyListRepo.class);
+        chemicalMapper = context.getBean(ChemicalMapper.class);
+        studyListMapper = context.getBean(StudyListMapper.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        insertRows(context.getBean(JdbcTemplate.class));
+    }
+
+    private void insertRows(JdbcTemplate jdbcTemplate) {
+        List<Object[]> chemicals = new ArrayList<>(rows);
+        List<Object[]> studies = new ArrayList<>(rows);
+        Date orderDate = Date.valueOf(LocalDate.of(2024, 1, 1));
+        for (int i = 1; i <= rows; i++) {
+            chemicals.add(new Object[]{i, "Chemical " + i, "64-17-5", "LOT-" + i, "Producer " + (i % 50),
+                    "Cabinet " + (i % 200), i % 100, i % 3 == 0, "Person " + (i % 40), orderDate, "500 g"});
+            studies.add(new Object[]{i, "STD_" + i, "DOC-" + i, "tubing", "L" + (i % 3), "Low",
+                    "Extractables study " + i, "3", "Tube " + i, "Person " + (i % 40), "completed"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO chemicals (id, name, cas_no, lot_no, producer, storage, quantity, " +
+                "toxic_state, responsible, order_date, weight) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", chemicals);
+        jdbcTemplate.batchUpdate("INSERT INTO study_list (id, study_code, document_codes, material_type, study_level, " +
+                "risk_level, info, number_of_samples, object_of_study, responsible_person, status) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", studies);
+    }
+
+    @Benchmark
+    public List<ChemicalDTO> chemicalsEntitiesAndMapper() {
+        return transactionTemplate.execute(status -> chemicalRepo.findAll().stream()
+                .map(chemicalMapper::chemicalToChemicalDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<ChemicalDTO> chemicalsDtoProjection() {
+        return chemicalRepo.findAllDtos();
+    }
+
+    @Benchmark
+    public List<StudyListDTO> studiesEntitiesAndMapper() {
+        return transactionTemplate.execute(status -> studyListRepo.findAll().stream()
+                .map(studyListMapper::studyListToStudyListDTO)
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public List<StudyListDTO> studiesDtoProjection() {
+        return studyListRepo.findAllDtos();
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
@@ -0,0 +1,65 @@
+package com.hande.chemical_database.config;
+
+import com.hande.chemical_database.utils.CasNumbers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills chemicals.cas_no_normalized for rows written before the column existed (or by
+ * plain SQL). Entity writes keep it current afterwards. Rows whose cas_no is not a valid
+ * CAS number stay null and are only counted.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(1)
+public class CasNumberBackfill implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int normalized = 0;
+            int invalid = 0;
+            long afterId = 0;
+            List<Map<String, Object>> rows;
+            do {
+                rows = jdbcTemplate.queryForList(
+                        "SELECT id, cas_no FROM chemicals WHERE id > ? AND cas_no IS NOT NULL " +
+                                "AND cas_no_normalized IS NULL ORDER BY id LIMIT " + BATCH_SIZE, afterId);
+
+                List<Object[]> updates = new ArrayList<>(rows.size());
+                for (Map<String, Object> row : rows) {
+                    afterId = ((Number) row.get("id")).longValue();
+                    String canonical = CasNumbers.normalize((String) row.get("cas_no"));
+                    if (canonical != null) {
+                        updates.add(new Object[]{canonical, afterId});
+                    } else {
+                        invalid++;
+                    }
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE chemicals SET cas_no_normalized = ? WHERE id = ?", updates);
+                    normalized += updates.size();
+                }
+            } while (rows.size() == BATCH_SIZE);
+
+            if (normalized > 0 || invalid > 0) {
+                log.info("✅ CAS numbers normalized: {}, invalid (left unindexed): {}", normalized, invalid);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error backfilling normalized CAS numbers", e);
+        }
+    }
+}
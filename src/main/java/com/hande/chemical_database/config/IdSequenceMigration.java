@@ -0,0 +1,84 @@
+package com.hande.chemical_database.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.BadSqlGrammarException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves the id sequences of chemicals and study_list past the highest existing id.
+ *
+ * Both tables used IDENTITY ids before switching to pooled sequences, and rows may
+ * still be inserted through AUTO_INCREMENT (data.sql), so the sequence is realigned
+ * on every startup. H2 uses a native sequence; MySQL has none and Hibernate emulates
+ * it with a single-row table (next_val).
+ *
+ * Runs before the EntityManagerFactory is built (see {@link EntityManagerFactoryDependency}),
+ * so no insert can draw an id from a stale sequence while the web server already accepts
+ * requests. On a fresh database the tables do not exist yet; Hibernate then creates them
+ * together with a sequence that starts at 1, which is correct for empty tables.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdSequenceMigration {
+
+    // Must match allocationSize of the @SequenceGenerator on the entities
+    private static final int ALLOCATION_SIZE = 50;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    public void alignSequences() {
+        boolean mysql = isMySql();
+        alignSequence("chemicals", "chemicals_seq", mysql);
+        alignSequence("study_list", "study_list_seq", mysql);
+    }
+
+    private void alignSequence(String table, String sequence, boolean mysql) {
+        try {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            // The pooled optimizer hands out (value - ALLOCATION_SIZE, value], so this keeps every new id above maxId
+            long nextValue = (maxId != null ? maxId : 0) + ALLOCATION_SIZE;
+
+            if (mysql) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + sequence + " (next_val BIGINT)");
+                Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + sequence, Integer.class);
+                if (rows == null || rows == 0) {
+                    jdbcTemplate.update("INSERT INTO " + sequence + " (next_val) VALUES (?)", nextValue);
+                } else {
+                    jdbcTemplate.update("UPDATE " + sequence + " SET next_val = ?", nextValue);
+                }
+            } else {
+                jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + sequence + " START WITH 1 INCREMENT BY " + ALLOCATION_SIZE);
+                jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + nextValue);
+            }
+            log.info("✅ Id sequence {} aligned to {} (max id in {}: {})", sequence, nextValue, table, maxId);
+        } catch (BadSqlGrammarException e) {
+            log.info("Table {} does not exist yet, id sequence {} starts fresh", table, sequence);
+        } catch (Exception e) {
+            log.error("❌ Error aligning id sequence {} of table {}", sequence, table, e);
+        }
+    }
+
+    private boolean isMySql() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        return product != null && product.toLowerCase().contains("mysql");
+    }
+
+    /**
+     * Makes the EntityManagerFactory, and with it every repository, wait for the realignment
+     */
+    @Component
+    static class EntityManagerFactoryDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        EntityManagerFactoryDependency() {
+            super(IdSequenceMigration.class);
+        }
+    }
+}
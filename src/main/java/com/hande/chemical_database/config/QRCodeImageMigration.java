@@ -0,0 +1,59 @@
+package com.hande.chemical_database.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off migration that moves QR code PNGs out of the legacy
+ * chemicals.qr_code_image / study_list.qr_code_image columns into
+ * qr_code_images and then drops the old columns.
+ * Does nothing once the columns are gone.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(0) // Run before anything reads QR images
+public class QRCodeImageMigration implements CommandLineRunner {
+
+    private static final String LEGACY_COLUMN = "qr_code_image";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        migrateTable("chemicals");
+        migrateTable("study_list");
+    }
+
+    private void migrateTable(String table) {
+        try {
+            if (!hasLegacyColumn(table)) {
+                return;
+            }
+
+            int moved = jdbcTemplate.update(
+                    "INSERT INTO qr_code_images (qr_code, image, created_at) " +
+                    "SELECT t.qr_code, t." + LEGACY_COLUMN + ", COALESCE(t.qr_code_generated_at, CURRENT_TIMESTAMP) " +
+                    "FROM " + table + " t " +
+                    "WHERE t.qr_code IS NOT NULL AND t." + LEGACY_COLUMN + " IS NOT NULL " +
+                    "AND NOT EXISTS (SELECT 1 FROM qr_code_images i WHERE i.qr_code = t.qr_code)");
+
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP COLUMN " + LEGACY_COLUMN);
+            log.info("✅ Moved {} QR code images from {}.{} to qr_code_images", moved, table, LEGACY_COLUMN);
+        } catch (Exception e) {
+            log.error("❌ Error migrating QR code images of table {}", table, e);
+        }
+    }
+
+    private boolean hasLegacyColumn(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.COLUMNS " +
+                "WHERE UPPER(TABLE_NAME) = UPPER(?) AND UPPER(COLUMN_NAME) = UPPER(?)",
+                Integer.class, table, LEGACY_COLUMN);
+        return count != null && count > 0;
+    }
+}
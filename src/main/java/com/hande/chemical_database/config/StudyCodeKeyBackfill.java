@@ -0,0 +1,58 @@
+package com.hande.chemical_database.config;
+
+import com.hande.chemical_database.utils.StudyCodes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fills study_list.study_code_key for rows written before the column existed (or by
+ * plain SQL). Entity writes keep it current afterwards.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Order(1)
+public class StudyCodeKeyBackfill implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        try {
+            int filled = 0;
+            long afterId = 0;
+            List<Map<String, Object>> rows;
+            do {
+                rows = jdbcTemplate.queryForList(
+                        "SELECT id, study_code FROM study_list WHERE id > ? AND study_code_key IS NULL " +
+                                "ORDER BY id LIMIT " + BATCH_SIZE, afterId);
+
+                List<Object[]> updates = new ArrayList<>(rows.size());
+                for (Map<String, Object> row : rows) {
+                    afterId = ((Number) row.get("id")).longValue();
+                    updates.add(new Object[]{StudyCodes.key((String) row.get("study_code")), afterId});
+                }
+                if (!updates.isEmpty()) {
+                    jdbcTemplate.batchUpdate("UPDATE study_list SET study_code_key = ? WHERE id = ?", updates);
+                    filled += updates.size();
+                }
+            } while (rows.size() == BATCH_SIZE);
+
+            if (filled > 0) {
+                log.info("✅ Study code keys filled: {}", filled);
+            }
+        } catch (Exception e) {
+            log.error("❌ Error backfilling study code keys", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hande.chemical_database.controllers;
+
+import com.hande.chemical_database.services.QRCodeImageStore;
+import com.hande.chemical_database.services.QRCodeLookupCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit/miss statistics of the in-memory caches
+ */
+@Controller
+@RequestMapping("/api/cache-stats")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheStatsController {
+
+    private final QRCodeImageStore qrCodeImageStore;
+    private final QRCodeLookupCache qrCodeLookupCache;
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new LinkedHashMap<>();
+
+        Map<String, Object> qrImages = new LinkedHashMap<>(qrCodeImageStore.getCacheStats());
+        qrImages.put("mode", qrCodeImageStore.isPersistImages() ? "persist" : "render");
+        response.put("qrImages", qrImages);
+
+        Map<String, Object> qrLookups = new LinkedHashMap<>();
+        qrLookups.put("chemicals", qrCodeLookupCache.getChemicalStats());
+        qrLookups.put("studies", qrCodeLookupCache.getStudyStats());
+        response.put("qrLookups", qrLookups);
+
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,29 +1,46 @@
 package com.hande.chemical_database.controllers;
 
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.mappers.ChemicalMapper;
+import com.hande.chemical_database.models.CasBatchLookup;
+import com.hande.chemical_database.models.ChemicalBulkUpdate;
+import com.hande.chemical_database.models.ChemicalBulkUpdateResult;
 import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.CsvImportReport;
+import com.hande.chemical_database.models.ChemicalSearchCriteria;
+import com.hande.chemical_database.models.CursorPage;
+import com.hande.chemical_database.models.FacetCount;
+import com.hande.chemical_database.models.FacetedPage;
+import com.hande.chemical_database.models.FuzzyMatch;
+import com.hande.chemical_database.models.ListVersion;
+import com.hande.chemical_database.models.Suggestion;
 import com.hande.chemical_database.services.ChemicalService;
 import com.hande.chemical_database.services.ChemicalsFiltering;
 import com.hande.chemical_database.services.ChemicalsUploadCsv;
+import com.hande.chemical_database.services.CsvExportService;
+import com.hande.chemical_database.services.QRCodeBatchGenerator;
 import com.hande.chemical_database.services.QRCodeService;
+import com.hande.chemical_database.services.StatisticsService;
+import com.hande.chemical_database.services.SuggestionService;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 import java.util.Map;
-import java.util.HashMap;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -39,21 +56,159 @@ public class ChemicalController {
     private final ChemicalsFiltering chemicalsFiltering;
     private final ChemicalsUploadCsv chemicalsUploadCsv;
     private final QRCodeService qrCodeService;
+    private final QRCodeBatchGenerator qrCodeBatchGenerator;
+    private final CsvExportService csvExportService;
+    private final StatisticsService statisticsService;
+    private final SuggestionService suggestionService;
+    private final ChemicalMapper chemicalMapper;
 
     @GetMapping
     @ResponseBody
-    public ResponseEntity<List<ChemicalDTO>> getAllChemicals() {
+    public ResponseEntity<List<ChemicalDTO>> getAllChemicals(WebRequest webRequest) {
         try {
+            // checkNotModified also sets the ETag / Last-Modified response headers
+            ListVersion version = chemicalService.getListVersion();
+            if (webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
             log.info("Getting all chemicals...");
             List<ChemicalDTO> chemicals = chemicalService.getAllChemicals();
             log.info("Found {} chemicals", chemicals.size());
-            return ResponseEntity.ok(chemicals);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(chemicals);
         } catch (Exception e) {
             log.error("Error getting all chemicals", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Keyset listing ordered by name: pass nextCursor from the previous response as "after".
+     * Every page costs the same, there is no total count.
+     */
+    @GetMapping("/cursor")
+    @ResponseBody
+    public ResponseEntity<CursorPage<ChemicalDTO>> listChemicalsByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String name) {
+        try {
+            return ResponseEntity.ok(chemicalsFiltering.listChemicalsAfter(after, size, name));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid chemical cursor request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error listing chemicals by cursor", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Combined search: any subset of name, casNo, storage, responsible, producer, toxicState,
+     * orderDateFrom and orderDateTo (yyyy-MM-dd), applied together in one query, sorted by name.
+     * page is 1-based like the other listings. Unless facets=false the response also carries
+     * counts per storage, responsible, toxicState and producer over all matching rows.
+     */
+    @GetMapping("/search")
+    @ResponseBody
+    public ResponseEntity<FacetedPage<ChemicalDTO>> searchChemicals(
+            @ModelAttribute ChemicalSearchCriteria criteria,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(defaultValue = "true") boolean facets) {
+        try {
+            log.info("Searching chemicals with {}", criteria);
+            PageRequest pageRequest = chemicalsFiltering.buildPageRequest(page, size);
+            Page<ChemicalDTO> chemicals = chemicalsFiltering.searchChemicals(criteria, pageRequest)
+                    .map(chemicalMapper::chemicalToChemicalDTO);
+            Map<String, List<FacetCount>> facetCounts = facets
+                    ? chemicalsFiltering.facetChemicals(criteria)
+                    : Map.of();
+            return ResponseEntity.ok(FacetedPage.of(chemicals, facetCounts));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid chemical search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error searching chemicals", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * All containers of a substance. Accepts any formatting ("64-17-5", "64 17 5", "64175").
+     */
+    @GetMapping("/cas/{casNo}")
+    @ResponseBody
+    public ResponseEntity<List<ChemicalDTO>> getChemicalsByCasNumber(@PathVariable String casNo) {
+        try {
+            return ResponseEntity.ok(chemicalsFiltering.findByCasNumber(casNo));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid CAS lookup: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error looking up CAS number {}", casNo, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Resolve up to 10,000 CAS numbers in one call (JSON array of strings in the body)
+     */
+    @PostMapping("/cas/lookup")
+    @ResponseBody
+    public ResponseEntity<CasBatchLookup> lookupCasNumbers(@RequestBody List<String> casNumbers) {
+        try {
+            log.info("Batch CAS lookup of {} numbers", casNumbers.size());
+            return ResponseEntity.ok(chemicalsFiltering.lookupCasNumbers(casNumbers));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid batch CAS lookup: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error in batch CAS lookup", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Typo-tolerant name lookup, e.g. "Acetonitirle" finds "Acetonitrile". Candidates are
+     * ranked by edit distance; maxDistance defaults to about one edit per four characters.
+     */
+    @GetMapping("/fuzzy")
+    @ResponseBody
+    public ResponseEntity<List<FuzzyMatch>> fuzzySearchChemicals(
+            @RequestParam String name,
+            @RequestParam(required = false) Integer maxDistance,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(chemicalsFiltering.fuzzySearchByName(name, maxDistance, limit));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid fuzzy search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            log.warn("Fuzzy search unavailable: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (Exception e) {
+            log.error("Error in fuzzy search for '{}'", name, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Typeahead: chemicals whose name or CAS number starts with q, served from memory
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public ResponseEntity<List<Suggestion>> suggestChemicals(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(suggestionService.suggestChemicals(q, limit));
+        } catch (Exception e) {
+            log.error("Error suggesting chemicals for '{}'", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @GetMapping("/{id}")
     @ResponseBody
     public ResponseEntity<ChemicalDTO> getChemicalById(@PathVariable Long id) {
@@ -103,6 +258,30 @@ public class ChemicalController {
         }
     }
 
+    /**
+     * Move or reassign many chemicals at once, e.g.
+     * {"filter": {"storage": "Cabinet A"}, "storage": "Cabinet B"} or {"ids": [1, 2], "responsible": "Jane"}.
+     * Rows are picked by up to 10,000 ids or by the search filter, and only the given fields are written.
+     * Unlike the search, the filter's name, storage, responsible and producer must match exactly.
+     */
+    @PatchMapping("/bulk")
+    @ResponseBody
+    public ResponseEntity<?> bulkUpdateChemicals(@RequestBody ChemicalBulkUpdate update) {
+        try {
+            log.info("Bulk updating chemicals ({} ids, filter: {})",
+                    update.getIds() != null ? update.getIds().size() : 0, update.getFilter());
+            ChemicalBulkUpdateResult result = chemicalService.bulkUpdateChemicals(update);
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected bulk update: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error bulk updating chemicals", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating chemicals: " + e.getMessage());
+        }
+    }
+
     @PostMapping
     @ResponseBody
     public ResponseEntity<ChemicalDTO> createChemical(@Valid @RequestBody ChemicalDTO chemicalDTO) {
@@ -132,16 +311,39 @@ public class ChemicalController {
         }
     }
 
+    @PostMapping("/generate-qr-missing")
+    @ResponseBody
+    public ResponseEntity<String> generateMissingQRCodes() {
+        try {
+            log.info("Generating QR codes for all chemicals without one");
+            int assigned = qrCodeBatchGenerator.assignMissingChemicalQRCodes();
+            return ResponseEntity.ok(String.format("Generated %d QR codes", assigned));
+        } catch (Exception e) {
+            log.error("Error generating missing QR codes", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error generating QR codes: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}/qr-image")
     @ResponseBody
-    public ResponseEntity<byte[]> getQRCodeImage(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getQRCodeImage(@PathVariable Long id, WebRequest webRequest) {
         try {
+            // The image only changes when the QR code is (re)generated, revalidate instead of re-rendering
+            Optional<ChemicalDTO> chemical = chemicalService.getChemicalById(id);
+            if (chemical.isPresent() && chemical.get().getQrCode() != null
+                    && webRequest.checkNotModified(HttpCaching.qrImageETag(chemical.get().getQrCode()),
+                    HttpCaching.toEpochMillis(chemical.get().getQrCodeGeneratedAt()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
             log.info("Getting QR code image for chemical ID: {}", id);
             byte[] qrCodeImage = qrCodeService.getQRCodeImage(id);
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.IMAGE_PNG);
             headers.setContentLength(qrCodeImage.length);
+            headers.setCacheControl(CacheControl.noCache());
 
             return new ResponseEntity<>(qrCodeImage, headers, HttpStatus.OK);
         } catch (Exception e) {
@@ -150,6 +352,29 @@ public class ChemicalController {
         }
     }
 
+    /**
+     * QR image addressed by its UUID. A UUID always renders the same PNG, so clients may
+     * cache it for a year; regenerating gives the chemical a new UUID and thus a new URL.
+     */
+    @GetMapping("/qr-image/{qrCode}")
+    @ResponseBody
+    public ResponseEntity<byte[]> getQRCodeImageByQrCode(@PathVariable String qrCode, WebRequest webRequest) {
+        try {
+            if (webRequest.checkNotModified(HttpCaching.qrImageETag(qrCode))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            byte[] qrCodeImage = qrCodeService.getQRCodeImageByQrCode(qrCode);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(qrCodeImage.length)
+                    .cacheControl(HttpCaching.IMMUTABLE)
+                    .body(qrCodeImage);
+        } catch (Exception e) {
+            log.error("Error retrieving QR code image {}", qrCode, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     // CSV endpoints (simplified)
     @PostMapping("/upload-csv")
     @ResponseBody
@@ -177,6 +402,25 @@ public class ChemicalController {
         }
     }
 
+    @PostMapping("/upload-csv-chunked")
+    @ResponseBody
+    public ResponseEntity<?> uploadChemicalsFromCsvInChunks(@RequestParam("file") MultipartFile file,
+                                                            @RequestParam(required = false) Integer chunkSize,
+                                                            @RequestParam(defaultValue = "INSERT") ImportMode mode) {
+        try {
+            log.info("Uploading CSV file in chunks: {} (chunk size: {}, mode: {})", file.getOriginalFilename(), chunkSize, mode);
+            CsvImportReport report = chemicalsUploadCsv.uploadChemicalsInChunks(file, chunkSize, mode);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected chunked CSV upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error uploading CSV file in chunks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error processing CSV file: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/export-csv")
     public void exportChemicalsToCSV(HttpServletResponse response) throws IOException {
         try {
@@ -189,52 +433,31 @@ public class ChemicalController {
             String filename = "chemicals_export_" + timestamp + ".csv";
             response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
 
-            List<ChemicalDTO> chemicals = chemicalService.getAllChemicals();
-            PrintWriter writer = response.getWriter();
-
-            // Write header
-            writer.println("name,CASNo,LotNo,producer,storage,toxicState,responsible,orderDate,weight");
-
-            // Write data rows
-            for (ChemicalDTO chemical : chemicals) {
-                writer.printf("\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\",\"%s\"%n",
-                        escapeCSV(chemical.getName()),
-                        escapeCSV(chemical.getCasNo()),
-                        escapeCSV(chemical.getLotNo()),
-                        escapeCSV(chemical.getProducer()),
-                        escapeCSV(chemical.getStorage()),
-                        chemical.getToxicState() != null ? chemical.getToxicState().toString() : "",
-                        escapeCSV(chemical.getResponsible()),
-                        chemical.getOrderDate() != null ? chemical.getOrderDate().toString() : "",
-                        escapeCSV(chemical.getWeight())
-                );
-            }
-
-            writer.flush();
-            log.info("Successfully exported {} chemicals to CSV", chemicals.size());
+            // Streams keyset pages from the database, rows go out while later pages are read
+            long exported = csvExportService.writeChemicals(response.getWriter());
+            log.info("Successfully exported {} chemicals to CSV", exported);
 
         } catch (Exception e) {
             log.error("Error exporting chemicals to CSV", e);
-            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error exporting data");
+            // Once the first page is flushed the status line is already sent
+            if (!response.isCommitted()) {
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error exporting data");
+            }
         }
     }
 
-    // Add these methods to your existing ChemicalController.java class
-
+    /**
+     * Deletes every chemical, or only those whose storage / responsible equal the given values,
+     * with a single DELETE statement
+     */
     @DeleteMapping("/clear-all")
     @ResponseBody
-    public ResponseEntity<String> clearAllChemicals() {
+    public ResponseEntity<String> clearAllChemicals(@RequestParam(required = false) String storage,
+                                                    @RequestParam(required = false) String responsible) {
         try {
-            log.info("Clearing all chemicals from database...");
-
-            List<ChemicalDTO> chemicals = chemicalService.getAllChemicals();
-            long count = chemicals.size();
+            log.info("Clearing chemicals from database (storage: {}, responsible: {})...", storage, responsible);
 
-            // Delete all chemicals - you'll need to add this method to ChemicalRepo
-            // For now, delete one by one:
-            for (ChemicalDTO chemical : chemicals) {
-                chemicalService.deleteChemical(chemical.getId());
-            }
+            int count = chemicalService.deleteChemicals(storage, responsible);
 
             log.info("Successfully cleared {} chemicals from database", count);
             return ResponseEntity.ok(String.format("Successfully cleared %d chemicals from database", count));
@@ -271,29 +494,12 @@ public class ChemicalController {
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getChemicalCount() {
         try {
-            List<ChemicalDTO> chemicals = chemicalService.getAllChemicals();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("total", chemicals.size());
-            response.put("toxic", chemicals.stream().filter(c -> Boolean.TRUE.equals(c.getToxicState())).count());
-            response.put("safe", chemicals.stream().filter(c -> Boolean.FALSE.equals(c.getToxicState())).count());
-            response.put("unknown", chemicals.stream().filter(c -> c.getToxicState() == null).count());
-
-            return ResponseEntity.ok(response);
+            // Served from a cached GROUP BY snapshot, refreshed after writes
+            return ResponseEntity.ok(statisticsService.getChemicalCounts());
 
         } catch (Exception e) {
             log.error("Error getting chemical count", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-
-    private String escapeCSV(String value) {
-        if (value == null) {
-            return "";
-        }
-        if (value.contains("\"")) {
-            value = value.replace("\"", "\"\"");
-        }
-        return value;
-    }
 }
\ No newline at end of file
@@ -133,7 +133,7 @@ public class CsvDebugController {
         return analysis;
     }
 
-    private char detectDelimiter(String line) {
+    char detectDelimiter(String line) {
         line = line.replaceAll("[\\r\\n]", "");
 
         int commaCount = 0;
@@ -155,7 +155,7 @@ public class CsvDebugController {
         return semicolonCount >= commaCount ? ';' : ',';
     }
 
-    private String[] parseCSVLine(String line, char delimiter) {
+    String[] parseCSVLine(String line, char delimiter) {
         List<String> result = new ArrayList<>();
         boolean inQuotes = false;
         StringBuilder current = new StringBuilder();
@@ -176,7 +176,7 @@ public class CsvDebugController {
         return result.toArray(new String[0]);
     }
 
-    private String cleanHeader(String header) {
+    String cleanHeader(String header) {
         if (header == null) return "";
         return header.trim()
                 .replaceAll("\\s+", " ")
@@ -0,0 +1,27 @@
+package com.hande.chemical_database.controllers;
+
+import org.springframework.http.CacheControl;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validators and Cache-Control values shared by the QR image endpoints
+ */
+final class HttpCaching {
+
+    // A QR UUID always renders the same PNG, regenerating assigns a new UUID
+    static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    private HttpCaching() {
+    }
+
+    static String qrImageETag(String qrCode) {
+        return "\"" + qrCode + "\"";
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? -1 : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,98 @@
+package com.hande.chemical_database.controllers;
+
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.models.ImportJobStatus;
+import com.hande.chemical_database.services.ImportJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Background CSV imports: submit returns 202 with a job id, the job is polled via
+ * GET /api/import-jobs/{jobId} and can be stopped between chunks via .../cancel
+ */
+@Controller
+@RequestMapping("/api/import-jobs")
+@RequiredArgsConstructor
+@Slf4j
+public class ImportJobController {
+
+    private final ImportJobService importJobService;
+
+    @PostMapping("/chemicals")
+    @ResponseBody
+    public ResponseEntity<?> submitChemicalImport(@RequestParam("file") MultipartFile file,
+                                                  @RequestParam(required = false) Integer chunkSize,
+                                                  @RequestParam(defaultValue = "INSERT") ImportMode mode) {
+        try {
+            log.info("Queueing chemical CSV import: {} (chunk size: {}, mode: {})", file.getOriginalFilename(), chunkSize, mode);
+            return accepted(importJobService.submitChemicalImport(file, chunkSize, mode));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected CSV import: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error queueing chemical CSV import", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error queueing CSV import: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/studies")
+    @ResponseBody
+    public ResponseEntity<?> submitStudyImport(@RequestParam("file") MultipartFile file,
+                                               @RequestParam(required = false) Integer chunkSize,
+                                               @RequestParam(defaultValue = "INSERT") ImportMode mode) {
+        try {
+            log.info("Queueing study CSV import: {} (chunk size: {}, mode: {})", file.getOriginalFilename(), chunkSize, mode);
+            return accepted(importJobService.submitStudyImport(file, chunkSize, mode));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected CSV import: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error queueing study CSV import", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error queueing CSV import: " + e.getMessage());
+        }
+    }
+
+    @GetMapping
+    @ResponseBody
+    public ResponseEntity<List<ImportJobStatus>> listJobs() {
+        return ResponseEntity.ok(importJobService.listJobs());
+    }
+
+    @GetMapping("/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ImportJobStatus> getJob(@PathVariable String jobId) {
+        return importJobService.getStatus(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{jobId}/cancel")
+    @ResponseBody
+    public ResponseEntity<ImportJobStatus> cancelJob(@PathVariable String jobId) {
+        log.info("Cancelling import job {}", jobId);
+        return importJobService.cancel(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    private static ResponseEntity<ImportJobStatus> accepted(ImportJobStatus status) {
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/import-jobs/" + status.getJobId()))
+                .body(status);
+    }
+}
@@ -1,6 +1,6 @@
 package com.hande.chemical_database.controllers;
 
-import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.models.ChemicalDTO;
 import com.hande.chemical_database.services.QRCodeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +19,7 @@ public class QRCodeController {
     @GetMapping("/qr/{qrCodeId}")
     public String showChemicalInfo(@PathVariable String qrCodeId, Model model) {
         try {
-            Chemicals chemical = qrCodeService.getChemicalByQRCode(qrCodeId);
+            ChemicalDTO chemical = qrCodeService.getChemicalSummaryByQRCode(qrCodeId);
             model.addAttribute("chemical", chemical);
             return "chemical-info"; // Thymeleaf template
         } catch (Exception e) {
@@ -1,25 +1,35 @@
 package com.hande.chemical_database.controllers;
 
 import com.hande.chemical_database.entities.StudyList;
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.models.CsvImportReport;
+import com.hande.chemical_database.models.CursorPage;
+import com.hande.chemical_database.models.ListVersion;
 import com.hande.chemical_database.models.StudyListDTO;
+import com.hande.chemical_database.models.Suggestion;
+import com.hande.chemical_database.services.CsvExportService;
+import com.hande.chemical_database.services.QRCodeBatchGenerator;
+import com.hande.chemical_database.services.StatisticsService;
 import com.hande.chemical_database.services.StudyListService;
 import com.hande.chemical_database.services.StudyListUploadCsv;
 import com.hande.chemical_database.services.StudyListQRCodeService;
+import com.hande.chemical_database.services.SuggestionService;
 import org.springframework.data.domain.Page;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
@@ -41,16 +51,26 @@ public class StudyListController {
     private final StudyListService studyListService;
     private final StudyListUploadCsv studyListUploadCsv;
     private final StudyListQRCodeService qrCodeService;
+    private final QRCodeBatchGenerator qrCodeBatchGenerator;
+    private final CsvExportService csvExportService;
+    private final StatisticsService statisticsService;
+    private final SuggestionService suggestionService;
 
     // ===== READ OPERATIONS =====
     @GetMapping
     @ResponseBody
-    public ResponseEntity<List<StudyListDTO>> getAllStudyLists() {
+    public ResponseEntity<List<StudyListDTO>> getAllStudyLists(WebRequest webRequest) {
         try {
+            // checkNotModified also sets the ETag / Last-Modified response headers
+            ListVersion version = studyListService.getListVersion();
+            if (webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
             log.info("Getting all study lists...");
             List<StudyListDTO> studies = studyListService.getAllStudyLists();
             log.info("Found {} studies", studies.size());
-            return ResponseEntity.ok(studies);
+            return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(studies);
         } catch (Exception e) {
             log.error("Error getting all studies", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -75,18 +95,8 @@ public class StudyListController {
     @ResponseBody
     public ResponseEntity<Map<String, Object>> getStudyCount() {
         try {
-            List<StudyListDTO> studies = studyListService.getAllStudyLists();
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("total", studies.size());
-            response.put("completed", studies.stream().filter(s -> "completed".equalsIgnoreCase(s.getStatus())).count());
-            response.put("inProgress", studies.stream().filter(s -> "in progress".equalsIgnoreCase(s.getStatus())).count());
-            response.put("pending", studies.stream().filter(s -> "pending".equalsIgnoreCase(s.getStatus())).count());
-            response.put("highRisk", studies.stream().filter(s -> "High".equalsIgnoreCase(s.getRiskLevel())).count());
-            response.put("mediumRisk", studies.stream().filter(s -> "Medium".equalsIgnoreCase(s.getRiskLevel())).count());
-            response.put("lowRisk", studies.stream().filter(s -> "Low".equalsIgnoreCase(s.getRiskLevel())).count());
-
-            return ResponseEntity.ok(response);
+            // Served from a cached GROUP BY snapshot, refreshed after writes
+            return ResponseEntity.ok(statisticsService.getStudyCounts());
 
         } catch (Exception e) {
             log.error("Error getting study count", e);
@@ -161,19 +171,16 @@ public class StudyListController {
         }
     }
 
+    /**
+     * Deletes every study, or only those with the given status, with a single DELETE statement
+     */
     @DeleteMapping("/clear-all")
     @ResponseBody
-    public ResponseEntity<String> clearAllStudyLists() {
+    public ResponseEntity<String> clearAllStudyLists(@RequestParam(required = false) String status) {
         try {
-            log.info("Clearing all studies from database...");
-
-            List<StudyListDTO> studies = studyListService.getAllStudyLists();
-            long count = studies.size();
+            log.info("Clearing studies from database (status: {})...", status);
 
-            // Delete all studies one by one
-            for (StudyListDTO study : studies) {
-                studyListService.deleteStudyList(study.getId());
-            }
+            int count = studyListService.deleteStudyLists(status);
 
             log.info("Successfully cleared {} studies from database", count);
             return ResponseEntity.ok(String.format("Successfully cleared %d studies from database", count));
@@ -230,6 +237,25 @@ public class StudyListController {
         }
     }
 
+    @PostMapping("/upload-csv-chunked")
+    @ResponseBody
+    public ResponseEntity<?> uploadStudyListsFromCsvInChunks(@RequestParam("file") MultipartFile file,
+                                                             @RequestParam(required = false) Integer chunkSize,
+                                                             @RequestParam(defaultValue = "INSERT") ImportMode mode) {
+        try {
+            log.info("Uploading CSV file in chunks: {} (chunk size: {}, mode: {})", file.getOriginalFilename(), chunkSize, mode);
+            CsvImportReport report = studyListUploadCsv.uploadStudyListsInChunks(file, chunkSize, mode);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected chunked CSV upload: {}", e.getMessage());
+            return ResponseEntity.badRequest().body("Error: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error uploading CSV file in chunks", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error processing CSV file: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/export-csv")
     public void exportCsv(HttpServletResponse response) {
         try {
@@ -242,35 +268,17 @@ public class StudyListController {
             String filename = "studies_export_" + timestamp + ".csv";
             response.setHeader("Content-Disposition", "attachment; filename=\"" + filename + "\"");
 
-            List<StudyListDTO> studies = studyListService.getAllStudyLists();
-            PrintWriter writer = response.getWriter();
-
-            // Write header with semicolon separators for European Excel compatibility
-            writer.println("studyCode;documentCodes;materialType;studyLevel;riskLevel;info;numberOfSamples;objectOfStudy;responsiblePerson;status");
-
-            // Write data rows
-            for (StudyListDTO study : studies) {
-                writer.printf("%s;%s;%s;%s;%s;%s;%s;%s;%s;%s%n",
-                        escapeCSV(study.getStudyCode()),
-                        escapeCSV(study.getDocumentCodes()),
-                        escapeCSV(study.getMaterialType()),
-                        escapeCSV(study.getStudyLevel()),
-                        escapeCSV(study.getRiskLevel()),
-                        escapeCSV(study.getInfo()),
-                        escapeCSV(study.getNumberOfSamples()),
-                        escapeCSV(study.getObjectOfStudy()),
-                        escapeCSV(study.getResponsiblePerson()),
-                        escapeCSV(study.getStatus())
-                );
-            }
-
-            writer.flush();
-            log.info("Successfully exported {} studies to CSV", studies.size());
+            // Streams keyset pages from the database, semicolon separated for European Excel
+            long exported = csvExportService.writeStudies(response.getWriter());
+            log.info("Successfully exported {} studies to CSV", exported);
 
         } catch (Exception e) {
             log.error("Error exporting studies to CSV", e);
             try {
-                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error exporting data");
+                // Once the first page is flushed the status line is already sent
+                if (!response.isCommitted()) {
+                    response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Error exporting data");
+                }
             } catch (IOException ioException) {
                 log.error("Error sending error response", ioException);
             }
@@ -291,15 +299,38 @@ public class StudyListController {
         }
     }
 
+    @PostMapping("/generate-qr-missing")
+    @ResponseBody
+    public ResponseEntity<String> generateMissingQRCodes() {
+        try {
+            log.info("Generating QR codes for all studies without one");
+            int assigned = qrCodeBatchGenerator.assignMissingStudyQRCodes();
+            return ResponseEntity.ok(String.format("Generated %d QR codes", assigned));
+        } catch (Exception e) {
+            log.error("Error generating missing QR codes for studies", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error generating QR codes: " + e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}/qr-image")
-    public ResponseEntity<byte[]> getQRCodeImage(@PathVariable Long id) {
+    public ResponseEntity<byte[]> getQRCodeImage(@PathVariable Long id, WebRequest webRequest) {
         try {
+            // The image only changes when the QR code is (re)generated, revalidate instead of re-rendering
+            Optional<StudyListDTO> study = studyListService.getStudyListById(id);
+            if (study.isPresent() && study.get().getQrCode() != null
+                    && webRequest.checkNotModified(HttpCaching.qrImageETag(study.get().getQrCode()),
+                    HttpCaching.toEpochMillis(study.get().getQrCodeGeneratedAt()))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+
             log.info("Getting QR code image for study ID: {}", id);
             byte[] qrImage = qrCodeService.getQRCodeImageForStudy(id);
 
             if (qrImage != null) {
                 HttpHeaders headers = new HttpHeaders();
                 headers.setContentType(MediaType.IMAGE_PNG);
+                headers.setCacheControl(CacheControl.noCache());
                 return ResponseEntity.ok().headers(headers).body(qrImage);
             } else {
                 return ResponseEntity.notFound().build();
@@ -310,6 +341,28 @@ public class StudyListController {
         }
     }
 
+    /**
+     * QR image addressed by its UUID, cacheable for a year (see ChemicalController)
+     */
+    @GetMapping("/qr-image/{qrCode}")
+    @ResponseBody
+    public ResponseEntity<byte[]> getQRCodeImageByQrCode(@PathVariable String qrCode, WebRequest webRequest) {
+        try {
+            if (webRequest.checkNotModified(HttpCaching.qrImageETag(qrCode))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+            }
+            byte[] qrImage = qrCodeService.getQRCodeImageByQrCode(qrCode);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.IMAGE_PNG)
+                    .contentLength(qrImage.length)
+                    .cacheControl(HttpCaching.IMMUTABLE)
+                    .body(qrImage);
+        } catch (Exception e) {
+            log.error("Error retrieving study QR code image {}", qrCode, e);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+    }
+
     @GetMapping("/qr/{qrCode}")
     @ResponseBody
     public ResponseEntity<StudyListDTO> getStudyByQRCode(@PathVariable String qrCode) {
@@ -350,6 +403,43 @@ public class StudyListController {
         }
     }
 
+    /**
+     * Keyset listing ordered by study code: pass nextCursor from the previous response as "after".
+     * Unlike /search there is no count query, so deep pages cost the same as the first.
+     */
+    @GetMapping("/cursor")
+    @ResponseBody
+    public ResponseEntity<CursorPage<StudyListDTO>> listStudiesByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(required = false) String filter) {
+        try {
+            return ResponseEntity.ok(studyListService.listStudyListsAfter(after, size, filter));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid study cursor request: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error listing studies by cursor", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * Typeahead: studies whose code starts with q, served from memory
+     */
+    @GetMapping("/suggest")
+    @ResponseBody
+    public ResponseEntity<List<Suggestion>> suggestStudies(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(suggestionService.suggestStudies(q, limit));
+        } catch (Exception e) {
+            log.error("Error suggesting studies for '{}'", q, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     // ===== TEST ENDPOINT =====
     @GetMapping("/test")
     @ResponseBody
@@ -370,15 +460,4 @@ public class StudyListController {
 
         return ResponseEntity.ok(response);
     }
-
-    // ===== HELPER METHODS =====
-    private String escapeCSV(String value) {
-        if (value == null) {
-            return "";
-        }
-        if (value.contains("\"")) {
-            value = value.replace("\"", "\"\"");
-        }
-        return value;
-    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package com.hande.chemical_database.entities;
 
+import com.hande.chemical_database.utils.CasNumbers;
+import com.hande.chemical_database.utils.ContentHashes;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -9,7 +11,16 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "chemicals")
+// Composite indexes serve the combined search: equality/range filter first, then the name sort.
+// storage and responsible are only matched with contains-LIKE, which no b-tree index can serve.
+// Also created by schema.sql and db/mysql-migration.sql for databases that are not ddl-auto=update.
+@Table(name = "chemicals", indexes = {
+        @Index(name = "idx_chemicals_cas_no", columnList = "cas_no"),
+        @Index(name = "idx_chemicals_cas_no_normalized", columnList = "cas_no_normalized"),
+        @Index(name = "idx_chemicals_toxic_state_name", columnList = "toxic_state, name"),
+        @Index(name = "idx_chemicals_order_date_name", columnList = "order_date, name"),
+        @Index(name = "idx_chemicals_producer", columnList = "producer")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -17,8 +28,10 @@ import java.time.LocalDateTime;
 @Setter
 public class Chemicals {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (see IdSequenceMigration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "chemicals_seq")
+    @SequenceGenerator(name = "chemicals_seq", sequenceName = "chemicals_seq", allocationSize = 50)
     private Long id;
 
     @NonNull
@@ -28,6 +41,10 @@ public class Chemicals {
     @Column(name = "cas_no", length = 50)  // Database column: cas_no
     private String casNo;  // Java field: casNo (camelCase)
 
+    // Canonical "NNNNNNN-NN-N" form of casNo for lookups, null when casNo is missing or invalid
+    @Column(name = "cas_no_normalized", length = 12)
+    private String casNoNormalized;
+
     @Column(name = "lot_no", length = 50)  // Database column: lot_no
     private String lotNo;  // Java field: lotNo (camelCase)
 
@@ -52,13 +69,13 @@ public class Chemicals {
     @Column(name = "weight", length = 50)
     private String weight;
 
+    // Hash of the CSV-importable columns, upsert imports skip rows whose hash is unchanged
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     // QR Code related fields
     @Column(name = "qr_code", unique = true, length = 36)
-    private String qrCode; // Unique identifier for QR code
-
-    @Lob
-    @Column(name = "qr_code_image", columnDefinition = "LONGBLOB")
-    private byte[] qrCodeImage; // Store QR code image as bytes
+    private String qrCode; // Unique identifier for QR code, also keys the image in qr_code_images
 
     @Column(name = "qr_code_generated_at")
     private LocalDateTime qrCodeGeneratedAt;
@@ -78,5 +95,19 @@ public class Chemicals {
     @Column(name = "updated_by", length = 255)
     private String updatedBy;
 
+    @PrePersist
+    @PreUpdate
+    void deriveColumns() {
+        casNoNormalized = CasNumbers.normalize(casNo);
+        contentHash = importedFieldsHash();
+    }
+
+    /**
+     * Hash of the CSV-importable columns, what content_hash holds after a write
+     */
+    public String importedFieldsHash() {
+        return ContentHashes.of(name, casNo, lotNo, producer, storage, toxicState, responsible, orderDate, weight);
+    }
+
     // Constructors, getters, setters are handled by Lombok
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.hande.chemical_database.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * QR code PNG kept apart from the chemicals / study_list rows so that list
+ * queries never touch blob bytes. Rows are keyed by the QR code UUID that
+ * the owning entity stores in its qr_code column.
+ */
+@Entity
+@Table(name = "qr_code_images")
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Getter
+@Setter
+public class QRCodeImage {
+
+    @Id
+    @Column(name = "qr_code", length = 36)
+    private String qrCode;
+
+    @Lob
+    @Column(name = "image", nullable = false, columnDefinition = "LONGBLOB")
+    private byte[] image;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,5 +1,7 @@
 package com.hande.chemical_database.entities;
 
+import com.hande.chemical_database.utils.ContentHashes;
+import com.hande.chemical_database.utils.StudyCodes;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
@@ -8,7 +10,9 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "study_list")
+@Table(name = "study_list", indexes = {
+        @Index(name = "idx_study_list_study_code_key", columnList = "study_code_key")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
@@ -16,13 +20,19 @@ import java.time.LocalDateTime;
 @Setter
 public class StudyList {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts (see IdSequenceMigration)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "study_list_seq")
+    @SequenceGenerator(name = "study_list_seq", sequenceName = "study_list_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "study_code", unique = true, nullable = false, length = 100)
     private String studyCode;
 
+    // Lower-cased studyCode, indexed for case-insensitive duplicate checks
+    @Column(name = "study_code_key", length = 100)
+    private String studyCodeKey;
+
     @Column(name = "document_codes", length = 500)
     private String documentCodes;
 
@@ -50,13 +60,13 @@ public class StudyList {
     @Column(name = "status", length = 50)
     private String status;
 
+    // Hash of the CSV-importable columns, upsert imports skip rows whose hash is unchanged
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     // QR Code related fields
     @Column(name = "qr_code", unique = true, length = 36)
-    private String qrCode;
-
-    @Lob
-    @Column(name = "qr_code_image", columnDefinition = "LONGBLOB")
-    private byte[] qrCodeImage;
+    private String qrCode; // Also keys the image in qr_code_images
 
     @Column(name = "qr_code_generated_at")
     private LocalDateTime qrCodeGeneratedAt;
@@ -75,4 +85,19 @@ public class StudyList {
 
     @Column(name = "updated_by", length = 255)
     private String updatedBy;
+
+    @PrePersist
+    @PreUpdate
+    void deriveColumns() {
+        studyCodeKey = StudyCodes.key(studyCode);
+        contentHash = importedFieldsHash();
+    }
+
+    /**
+     * Hash of the CSV-importable columns, what content_hash holds after a write
+     */
+    public String importedFieldsHash() {
+        return ContentHashes.of(studyCode, documentCodes, materialType, studyLevel, riskLevel, info,
+                numberOfSamples, objectOfStudy, responsiblePerson, status);
+    }
 }
\ No newline at end of file
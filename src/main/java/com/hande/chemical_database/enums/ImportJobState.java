@@ -0,0 +1,16 @@
+package com.hande.chemical_database.enums;
+
+/**
+ * Lifecycle of an asynchronous CSV import job
+ */
+public enum ImportJobState {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == COMPLETED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,11 @@
+package com.hande.chemical_database.enums;
+
+/**
+ * How a CSV import treats rows whose key (chemical name, study code) already exists
+ */
+public enum ImportMode {
+    /** Keep the existing row, only add new keys */
+    INSERT,
+    /** Overwrite the imported columns of existing rows whose content differs, add new keys */
+    UPSERT
+}
@@ -0,0 +1,32 @@
+package com.hande.chemical_database.events;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published after chemicals were created, updated or deleted, so caches and in-memory
+ * indexes can refresh. An empty id list means any row may have changed.
+ */
+@Getter
+public class ChemicalsChangedEvent {
+
+    private final List<Long> ids;
+
+    public ChemicalsChangedEvent(Collection<Long> ids) {
+        this.ids = ids != null ? List.copyOf(ids) : List.of();
+    }
+
+    public static ChemicalsChangedEvent of(Long id) {
+        return new ChemicalsChangedEvent(List.of(id));
+    }
+
+    public static ChemicalsChangedEvent all() {
+        return new ChemicalsChangedEvent(List.of());
+    }
+
+    public boolean isAll() {
+        return ids.isEmpty();
+    }
+}
@@ -0,0 +1,32 @@
+package com.hande.chemical_database.events;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published after studies were created, updated or deleted, so caches and in-memory
+ * indexes can refresh. An empty id list means any row may have changed.
+ */
+@Getter
+public class StudiesChangedEvent {
+
+    private final List<Long> ids;
+
+    public StudiesChangedEvent(Collection<Long> ids) {
+        this.ids = ids != null ? List.copyOf(ids) : List.of();
+    }
+
+    public static StudiesChangedEvent of(Long id) {
+        return new StudiesChangedEvent(List.of(id));
+    }
+
+    public static StudiesChangedEvent all() {
+        return new StudiesChangedEvent(List.of());
+    }
+
+    public boolean isAll() {
+        return ids.isEmpty();
+    }
+}
@@ -0,0 +1,22 @@
+package com.hande.chemical_database.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of resolving many CAS numbers at once. Matches are keyed by canonical CAS number
+ * in request order; inputs that are not valid CAS numbers are echoed back in invalid.
+ */
+@Data
+@NoArgsConstructor
+public class CasBatchLookup {
+
+    private Map<String, List<ChemicalDTO>> matches = new LinkedHashMap<>();
+    private List<String> notFound = new ArrayList<>();
+    private List<String> invalid = new ArrayList<>();
+}
@@ -0,0 +1,28 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of PATCH /api/chemicals/bulk. The rows are picked either by id or by a filter, never
+ * both. The filter takes the combined search criteria, but its text fields must match exactly.
+ * Only the non-null values among storage, responsible and toxicState are written, the other
+ * columns keep their values.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChemicalBulkUpdate {
+
+    private List<Long> ids;
+    private ChemicalSearchCriteria filter;
+
+    private String storage;
+    private String responsible;
+    private Boolean toxicState;
+}
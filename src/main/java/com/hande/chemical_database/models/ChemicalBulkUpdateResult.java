@@ -0,0 +1,20 @@
+package com.hande.chemical_database.models;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk update: the ids that were changed (ascending) and, for updates by id,
+ * the requested ids that do not exist
+ */
+@Data
+@NoArgsConstructor
+public class ChemicalBulkUpdateResult {
+
+    private int updated;
+    private List<Long> ids = new ArrayList<>();
+    private List<Long> notFound = new ArrayList<>();
+}
@@ -2,6 +2,7 @@ package com.hande.chemical_database.models;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -10,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Builder
 @Data
+@AllArgsConstructor // Field order is used by the JPQL constructor projections in the repos
 public class ChemicalDTO {
     private Long id;
 
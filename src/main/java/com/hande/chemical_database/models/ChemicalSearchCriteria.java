@@ -0,0 +1,35 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Optional filters for the combined chemical search; null or blank fields are ignored.
+ * Text fields match "contains, ignoring case", casNo matches the CAS number in any
+ * formatting (exactly if it is not a valid CAS number) and the order
+ * date range is inclusive on both ends.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChemicalSearchCriteria {
+
+    private String name;
+    private String casNo;
+    private String storage;
+    private String responsible;
+    private String producer;
+    private Boolean toxicState;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate orderDateFrom;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate orderDateTo;
+}
@@ -0,0 +1,65 @@
+package com.hande.chemical_database.models;
+
+import com.hande.chemical_database.enums.ImportMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of a chunked CSV import: totals plus one entry per committed chunk
+ */
+@Data
+@NoArgsConstructor
+public class CsvImportReport {
+
+    private String filename;
+    private int chunkSize;
+    private ImportMode mode = ImportMode.INSERT;
+    private int rowsParsed;
+    private int rowsSaved;
+    private int rowsUpdated;   // upsert: existing rows whose content changed
+    private int rowsUnchanged; // upsert: existing rows with identical content, not written
+    private int rowsSkipped;   // already in the database (insert mode) or repeated in the file
+    private int rowsInvalid;   // could not be mapped (missing required fields, bad format)
+    private int rowsFailed;    // belonged to a chunk whose commit failed
+    private long durationMs;
+    private boolean cancelled; // stopped between chunks, committed chunks are kept
+    private List<ChunkReport> chunks = new ArrayList<>();
+
+    public CsvImportReport(String filename, int chunkSize, ImportMode mode) {
+        this.filename = filename;
+        this.chunkSize = chunkSize;
+        this.mode = mode;
+    }
+
+    public void addChunk(ChunkReport chunk) {
+        chunks.add(chunk);
+        rowsParsed += chunk.getRowsParsed();
+        rowsSaved += chunk.getRowsSaved();
+        rowsUpdated += chunk.getRowsUpdated();
+        rowsUnchanged += chunk.getRowsUnchanged();
+        rowsSkipped += chunk.getRowsSkipped();
+        if (chunk.getError() != null) {
+            rowsFailed += chunk.getRowsParsed() - chunk.getRowsSkipped() - chunk.getRowsUnchanged();
+        }
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChunkReport {
+        private int chunkNumber;
+        private int rowsParsed;
+        private int rowsSaved;
+        private int rowsUpdated;
+        private int rowsUnchanged;
+        private int rowsSkipped;
+        private long durationMs;
+        private String error;
+    }
+}
@@ -0,0 +1,34 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (cursor) listing. Pass nextCursor back as "after" to get the
+ * following page; it is null on the last page. No total count is computed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private int size;
+    private boolean hasMore;
+    private String nextCursor;
+
+    /**
+     * Build a page from a query that fetched up to size + 1 rows; the extra row only
+     * tells whether another page exists
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int size, Function<T, String> cursorOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> items = hasMore ? List.copyOf(rows.subList(0, size)) : rows;
+        String nextCursor = hasMore ? cursorOf.apply(items.get(items.size() - 1)) : null;
+        return new CursorPage<>(items, size, hasMore, nextCursor);
+    }
+}
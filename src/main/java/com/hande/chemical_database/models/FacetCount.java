@@ -0,0 +1,17 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Number of matching rows that share one value of a facet field (value may be null)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetCount {
+
+    private Object value;
+    private long count;
+}
@@ -0,0 +1,31 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One result page plus facet counts over all rows matching the same filters, so the
+ * UI can show drill-down counts without downloading everything. page is 1-based.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacetedPage<T> {
+
+    private List<T> items;
+    private int page;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private Map<String, List<FacetCount>> facets;   // empty when facets were not requested
+
+    public static <T> FacetedPage<T> of(Page<T> page, Map<String, List<FacetCount>> facets) {
+        return new FacetedPage<>(page.getContent(), page.getNumber() + 1, page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), facets);
+    }
+}
@@ -0,0 +1,18 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Chemical whose name is within a few edits of the searched name
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FuzzyMatch {
+
+    private Long id;
+    private String name;
+    private int distance;   // Levenshtein edits from the searched name
+}
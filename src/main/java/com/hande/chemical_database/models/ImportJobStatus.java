@@ -0,0 +1,43 @@
+package com.hande.chemical_database.models;
+
+import com.hande.chemical_database.enums.ImportJobState;
+import com.hande.chemical_database.enums.ImportMode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Snapshot of an asynchronous CSV import. Row counts grow after every committed chunk,
+ * the full report with per-chunk details is attached once the job has finished.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobStatus {
+
+    private String jobId;
+    private String type;       // "chemicals" or "studies"
+    private String filename;
+    private ImportMode mode;
+    private ImportJobState state;
+    private boolean cancelRequested;
+
+    private int chunksCompleted;
+    private int rowsParsed;
+    private int rowsSaved;
+    private int rowsUpdated;
+    private int rowsUnchanged;
+    private int rowsSkipped;
+    private int rowsInvalid;
+    private int rowsFailed;
+
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+    private CsvImportReport report;
+}
@@ -0,0 +1,42 @@
+package com.hande.chemical_database.models;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * Cheap fingerprint of a whole table (row count, highest id, latest change) used as the
+ * validator for conditional GETs of full listings. Any insert, update, delete or QR
+ * assignment changes at least one component.
+ */
+@Getter
+@RequiredArgsConstructor
+public class ListVersion {
+
+    private final long count;
+    private final long maxId;
+    private final LocalDateTime lastModified;   // null for an empty table
+
+    /**
+     * Build from a [COUNT, MAX(id), MAX(updatedAt), MAX(qrCodeGeneratedAt)] row
+     */
+    public static ListVersion of(Object[] row) {
+        LocalDateTime updatedAt = (LocalDateTime) row[2];
+        LocalDateTime qrCodeGeneratedAt = (LocalDateTime) row[3];
+        LocalDateTime lastModified = updatedAt == null
+                || (qrCodeGeneratedAt != null && qrCodeGeneratedAt.isAfter(updatedAt))
+                ? qrCodeGeneratedAt : updatedAt;
+        return new ListVersion(((Number) row[0]).longValue(), ((Number) row[1]).longValue(), lastModified);
+    }
+
+    // Weak: the JSON body is equivalent, not byte-identical, across versions of the app
+    public String getETag() {
+        return "W/\"" + count + "-" + maxId + "-" + getLastModifiedMillis() + "\"";
+    }
+
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -2,6 +2,7 @@ package com.hande.chemical_database.models;
 
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -9,6 +10,7 @@ import java.time.LocalDateTime;
 
 @Builder
 @Data
+@AllArgsConstructor // Field order is used by the JPQL constructor projections in the repos
 public class StudyListDTO {
     private Long id;
 
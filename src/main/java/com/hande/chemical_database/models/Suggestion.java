@@ -0,0 +1,18 @@
+package com.hande.chemical_database.models;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One typeahead match: the matched value, which field it came from and the row it belongs to
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Suggestion {
+
+    private Long id;
+    private String value;
+    private String field;   // name, casNo or studyCode
+}
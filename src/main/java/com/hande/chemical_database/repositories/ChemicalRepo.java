@@ -1,9 +1,11 @@
 package com.hande.chemical_database.repositories;
 
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.models.ChemicalDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -11,18 +13,29 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ChemicalRepo extends JpaRepository<Chemicals, Long> {
+public interface ChemicalRepo extends JpaRepository<Chemicals, Long>, JpaSpecificationExecutor<Chemicals> {
 
     Optional<Chemicals> findByNameIgnoreCase(String name);
 
     List<Chemicals> findByCasNo(String casNo);
 
-    @Query("SELECT c.name FROM Chemicals c")
-    List<String> findAllChemicalNames();
+    // casNoNormalized is the canonical form written by Chemicals.deriveColumns
+    List<Chemicals> findByCasNoNormalized(String casNoNormalized);
+
+    List<Chemicals> findByCasNoNormalizedIn(Collection<String> casNoNormalized);
+
+    @Query("SELECT c.name FROM Chemicals c WHERE c.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // [name, id, contentHash] for upsert imports
+    @Query("SELECT c.name, c.id, c.contentHash FROM Chemicals c WHERE c.name IN :names")
+    List<Object[]> findContentHashesByNameIn(@Param("names") Collection<String> names);
 
     Page<Chemicals> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
@@ -39,10 +52,108 @@ public interface ChemicalRepo extends JpaRepository<Chemicals, Long> {
     @Query("DELETE FROM Chemicals c WHERE c.name = :name")
     void deleteByName(@Param("name") String name);
 
+    // Single-statement bulk delete, a null filter matches every row
+    @Modifying
+    @Query("DELETE FROM Chemicals c WHERE (:storage IS NULL OR c.storage = :storage) " +
+            "AND (:responsible IS NULL OR c.responsible = :responsible)")
+    int deleteAllMatching(@Param("storage") String storage, @Param("responsible") String responsible);
+
+    @Query("SELECT c.id FROM Chemicals c WHERE c.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Set-based update of the fields a bulk edit may touch, null keeps the current value.
+     * Bypasses the entity callbacks, so content_hash is cleared (an upsert import then
+     * rewrites the row instead of trusting a stale hash) and updated_at is set here.
+     */
+    @Modifying
+    @Query("UPDATE Chemicals c SET c.storage = COALESCE(:storage, c.storage), " +
+            "c.responsible = COALESCE(:responsible, c.responsible), " +
+            "c.toxicState = COALESCE(:toxicState, c.toxicState), " +
+            "c.contentHash = NULL, c.updatedAt = :updatedAt WHERE c.id IN :ids")
+    int updateFieldsByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("storage") String storage,
+                           @Param("responsible") String responsible,
+                           @Param("toxicState") Boolean toxicState,
+                           @Param("updatedAt") LocalDateTime updatedAt);
+
     boolean existsByName(String name);
 
     boolean existsByNameIgnoreCase(String name);
 
     Optional<Chemicals> findByQrCode(String qrCode);
 
+    @Query("SELECT c.id FROM Chemicals c WHERE c.qrCode IS NULL")
+    List<Long> findIdsWithoutQrCode();
+
+    /**
+     * First keyset page ordered by (name, id). pattern is a lower-case LIKE pattern escaped
+     * with '!', or null for no filter. Pass PageRequest.of(0, size + 1) to detect a next page.
+     */
+    @Query("SELECT new com.hande.chemical_database.models.ChemicalDTO(c.id, c.name, c.casNo, c.lotNo, c.producer, " +
+            "c.quantity, c.storage, c.toxicState, c.responsible, c.orderDate, c.weight, c.qrCode, c.qrCodeGeneratedAt) " +
+            "FROM Chemicals c WHERE (:pattern IS NULL OR LOWER(c.name) LIKE :pattern ESCAPE '!') " +
+            "ORDER BY c.name, c.id")
+    List<ChemicalDTO> findDtosOrderByName(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Keyset page after (name, id), seeks on the name index instead of skipping rows
+     */
+    @Query("SELECT new com.hande.chemical_database.models.ChemicalDTO(c.id, c.name, c.casNo, c.lotNo, c.producer, " +
+            "c.quantity, c.storage, c.toxicState, c.responsible, c.orderDate, c.weight, c.qrCode, c.qrCodeGeneratedAt) " +
+            "FROM Chemicals c WHERE (c.name > :name OR (c.name = :name AND c.id > :id)) " +
+            "AND (:pattern IS NULL OR LOWER(c.name) LIKE :pattern ESCAPE '!') " +
+            "ORDER BY c.name, c.id")
+    List<ChemicalDTO> findDtosAfterName(@Param("name") String name, @Param("id") Long id,
+                                        @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * [id, name, storage, responsible, casNo] rows after the given id, ordered by id, for building
+     * the search and suggestion indexes
+     */
+    @Query("SELECT c.id, c.name, c.storage, c.responsible, c.casNo FROM Chemicals c WHERE c.id > :afterId ORDER BY c.id")
+    List<Object[]> findSearchFieldsAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT c.id, c.name, c.storage, c.responsible, c.casNo FROM Chemicals c WHERE c.id IN :ids")
+    List<Object[]> findSearchFieldsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Page content only, the caller already knows the total
+    List<Chemicals> findByIdIn(Collection<Long> ids, Pageable pageable);
+
+    /**
+     * Rows per toxic state as [toxicState, count], toxicState may be null
+     */
+    @Query("SELECT c.toxicState, COUNT(c) FROM Chemicals c GROUP BY c.toxicState")
+    List<Object[]> countByToxicState();
+
+    /**
+     * Every chemical as a read-only DTO, ordered by id. Selects the list columns straight
+     * into DTOs: no managed entities, no persistence-context snapshots, no mapper pass.
+     */
+    @Query("SELECT new com.hande.chemical_database.models.ChemicalDTO(c.id, c.name, c.casNo, c.lotNo, c.producer, " +
+            "c.quantity, c.storage, c.toxicState, c.responsible, c.orderDate, c.weight, c.qrCode, c.qrCodeGeneratedAt) " +
+            "FROM Chemicals c ORDER BY c.id")
+    List<ChemicalDTO> findAllDtos();
+
+    /**
+     * Keyset page for streaming: DTOs with id greater than afterId, ordered by id.
+     * Pass PageRequest.of(0, size) to bound the page.
+     */
+    @Query("SELECT new com.hande.chemical_database.models.ChemicalDTO(c.id, c.name, c.casNo, c.lotNo, c.producer, " +
+            "c.quantity, c.storage, c.toxicState, c.responsible, c.orderDate, c.weight, c.qrCode, c.qrCodeGeneratedAt) " +
+            "FROM Chemicals c WHERE c.id > :afterId ORDER BY c.id")
+    List<ChemicalDTO> findDtosAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * [COUNT, MAX(id), MAX(updatedAt), MAX(qrCodeGeneratedAt)], the validator of the full listing
+     */
+    @Query("SELECT COUNT(c), COALESCE(MAX(c.id), 0), MAX(c.updatedAt), MAX(c.qrCodeGeneratedAt) FROM Chemicals c")
+    List<Object[]> findListVersion();
+
+    // Slim row for QR scans (see QRCodeLookupCache)
+    @Query("SELECT new com.hande.chemical_database.models.ChemicalDTO(c.id, c.name, c.casNo, c.lotNo, c.producer, " +
+            "c.quantity, c.storage, c.toxicState, c.responsible, c.orderDate, c.weight, c.qrCode, c.qrCodeGeneratedAt) " +
+            "FROM Chemicals c WHERE c.qrCode = :qrCode")
+    Optional<ChemicalDTO> findDtoByQrCode(@Param("qrCode") String qrCode);
+
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.hande.chemical_database.repositories;
+
+import com.hande.chemical_database.entities.QRCodeImage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface QRCodeImageRepo extends JpaRepository<QRCodeImage, String> {
+
+    // Images of the chemicals ChemicalRepo.deleteAllMatching is about to remove, run it first
+    @Modifying
+    @Query("DELETE FROM QRCodeImage i WHERE i.qrCode IN (SELECT c.qrCode FROM Chemicals c " +
+            "WHERE (:storage IS NULL OR c.storage = :storage) " +
+            "AND (:responsible IS NULL OR c.responsible = :responsible))")
+    int deleteChemicalImages(@Param("storage") String storage, @Param("responsible") String responsible);
+
+    // Images of the studies StudyListRepo.deleteAllMatching is about to remove, run it first
+    @Modifying
+    @Query("DELETE FROM QRCodeImage i WHERE i.qrCode IN (SELECT s.qrCode FROM StudyList s " +
+            "WHERE (:status IS NULL OR s.status = :status))")
+    int deleteStudyImages(@Param("status") String status);
+}
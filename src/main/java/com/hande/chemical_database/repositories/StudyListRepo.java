@@ -1,6 +1,7 @@
 package com.hande.chemical_database.repositories;
 
 import com.hande.chemical_database.entities.StudyList;
+import com.hande.chemical_database.models.StudyListDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -10,6 +11,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,8 +20,13 @@ public interface StudyListRepo extends JpaRepository<StudyList, Long> {
 
     Optional<StudyList> findByStudyCodeIgnoreCase(String studyCode);
 
-    @Query("SELECT s.studyCode FROM StudyList s")
-    List<String> findAllStudyCodes();
+    // Keys are StudyCodes.key(studyCode), matched through the study_code_key index
+    @Query("SELECT s.studyCodeKey FROM StudyList s WHERE s.studyCodeKey IN :keys")
+    List<String> findExistingStudyCodeKeys(@Param("keys") Collection<String> studyCodeKeys);
+
+    // [study code key, id, contentHash] for upsert imports
+    @Query("SELECT s.studyCodeKey, s.id, s.contentHash FROM StudyList s WHERE s.studyCodeKey IN :keys")
+    List<Object[]> findContentHashesByStudyCodeKeyIn(@Param("keys") Collection<String> studyCodeKeys);
 
     Page<StudyList> findByStudyCodeContainingIgnoreCase(String studyCode, Pageable pageable);
 
@@ -38,9 +45,93 @@ public interface StudyListRepo extends JpaRepository<StudyList, Long> {
     @Query("DELETE FROM StudyList s WHERE s.studyCode = :studyCode")
     void deleteByStudyCode(@Param("studyCode") String studyCode);
 
+    // Single-statement bulk delete, a null status matches every row
+    @Modifying
+    @Query("DELETE FROM StudyList s WHERE (:status IS NULL OR s.status = :status)")
+    int deleteAllMatching(@Param("status") String status);
+
     boolean existsByStudyCode(String studyCode);
 
     boolean existsByStudyCodeIgnoreCase(String studyCode);
 
     Optional<StudyList> findByQrCode(String qrCode);
-}
\ No newline at end of file
+
+    @Query("SELECT s.id FROM StudyList s WHERE s.qrCode IS NULL")
+    List<Long> findIdsWithoutQrCode();
+
+    /**
+     * First keyset page ordered by (studyCode, id). pattern is a lower-case LIKE pattern escaped
+     * with '!', or null for no filter. Pass PageRequest.of(0, size + 1) to detect a next page.
+     */
+    @Query("SELECT new com.hande.chemical_database.models.StudyListDTO(s.id, s.studyCode, s.documentCodes, " +
+            "s.materialType, s.studyLevel, s.riskLevel, s.info, s.numberOfSamples, s.objectOfStudy, " +
+            "s.responsiblePerson, s.status, s.qrCode, s.qrCodeGeneratedAt) " +
+            "FROM StudyList s WHERE (:pattern IS NULL OR LOWER(s.studyCode) LIKE :pattern ESCAPE '!') " +
+            "ORDER BY s.studyCode, s.id")
+    List<StudyListDTO> findDtosOrderByStudyCode(@Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Keyset page after (studyCode, id), seeks on the study code index instead of skipping rows
+     */
+    @Query("SELECT new com.hande.chemical_database.models.StudyListDTO(s.id, s.studyCode, s.documentCodes, " +
+            "s.materialType, s.studyLevel, s.riskLevel, s.info, s.numberOfSamples, s.objectOfStudy, " +
+            "s.responsiblePerson, s.status, s.qrCode, s.qrCodeGeneratedAt) " +
+            "FROM StudyList s WHERE (s.studyCode > :studyCode OR (s.studyCode = :studyCode AND s.id > :id)) " +
+            "AND (:pattern IS NULL OR LOWER(s.studyCode) LIKE :pattern ESCAPE '!') " +
+            "ORDER BY s.studyCode, s.id")
+    List<StudyListDTO> findDtosAfterStudyCode(@Param("studyCode") String studyCode, @Param("id") Long id,
+                                              @Param("pattern") String pattern, Pageable pageable);
+
+    /**
+     * Rows per lower-cased status as [status, count], status may be null
+     */
+    @Query("SELECT LOWER(s.status), COUNT(s) FROM StudyList s GROUP BY LOWER(s.status)")
+    List<Object[]> countByStatusIgnoreCase();
+
+    /**
+     * Rows per lower-cased risk level as [riskLevel, count], riskLevel may be null
+     */
+    @Query("SELECT LOWER(s.riskLevel), COUNT(s) FROM StudyList s GROUP BY LOWER(s.riskLevel)")
+    List<Object[]> countByRiskLevelIgnoreCase();
+
+    /**
+     * Every study as a read-only DTO, ordered by id, without hydrating entities
+     */
+    @Query("SELECT new com.hande.chemical_database.models.StudyListDTO(s.id, s.studyCode, s.documentCodes, " +
+            "s.materialType, s.studyLevel, s.riskLevel, s.info, s.numberOfSamples, s.objectOfStudy, " +
+            "s.responsiblePerson, s.status, s.qrCode, s.qrCodeGeneratedAt) " +
+            "FROM StudyList s ORDER BY s.id")
+    List<StudyListDTO> findAllDtos();
+
+    /**
+     * Keyset page for streaming: DTOs with id greater than afterId, ordered by id.
+     * Pass PageRequest.of(0, size) to bound the page.
+     */
+    @Query("SELECT new com.hande.chemical_database.models.StudyListDTO(s.id, s.studyCode, s.documentCodes, " +
+            "s.materialType, s.studyLevel, s.riskLevel, s.info, s.numberOfSamples, s.objectOfStudy, " +
+            "s.responsiblePerson, s.status, s.qrCode, s.qrCodeGeneratedAt) " +
+            "FROM StudyList s WHERE s.id > :afterId ORDER BY s.id")
+    List<StudyListDTO> findDtosAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * [COUNT, MAX(id), MAX(updatedAt), MAX(qrCodeGeneratedAt)], the validator of the full listing
+     */
+    @Query("SELECT COUNT(s), COALESCE(MAX(s.id), 0), MAX(s.updatedAt), MAX(s.qrCodeGeneratedAt) FROM StudyList s")
+    List<Object[]> findListVersion();
+
+    // Slim row for QR scans (see QRCodeLookupCache)
+    @Query("SELECT new com.hande.chemical_database.models.StudyListDTO(s.id, s.studyCode, s.documentCodes, " +
+            "s.materialType, s.studyLevel, s.riskLevel, s.info, s.numberOfSamples, s.objectOfStudy, " +
+            "s.responsiblePerson, s.status, s.qrCode, s.qrCodeGeneratedAt) " +
+            "FROM StudyList s WHERE s.qrCode = :qrCode")
+    Optional<StudyListDTO> findDtoByQrCode(@Param("qrCode") String qrCode);
+
+    /**
+     * [id, studyCode] rows after the given id, ordered by id, for building the suggestion index
+     */
+    @Query("SELECT s.id, s.studyCode FROM StudyList s WHERE s.id > :afterId ORDER BY s.id")
+    List<Object[]> findStudyCodesAfterId(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT s.id, s.studyCode FROM StudyList s WHERE s.id IN :ids")
+    List<Object[]> findStudyCodesByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,215 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.models.FuzzyMatch;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Burkhard-Keller tree over lower-cased values using Levenshtein distance. A lookup
+ * only descends into children whose edge distance is within maxDistance of the
+ * distance to the current node, which for small distances prunes most of the tree.
+ *
+ * Nodes are never unlinked: removing the last id of a node leaves it empty and it is
+ * skipped by searches. Once empty nodes outnumber live ones the tree is rebuilt.
+ *
+ * Not thread-safe, callers guard access (see ChemicalSearchIndex).
+ */
+public class BkTree {
+
+    private static final int MIN_NODES_BEFORE_COMPACTION = 1024;
+
+    private final Map<Long, String> values = new HashMap<>();
+    private Node root;
+    private int nodes;
+    private int emptyNodes;
+
+    public int size() {
+        return values.size();
+    }
+
+    public void put(long id, String value) {
+        remove(id);
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        values.put(id, value);
+        insert(id, normalize(value));
+    }
+
+    public void remove(long id) {
+        String previous = values.remove(id);
+        if (previous == null) {
+            return;
+        }
+        Node node = find(normalize(previous));
+        if (node != null && node.removeId(id) && node.idCount == 0) {
+            emptyNodes++;
+        }
+        if (emptyNodes > MIN_NODES_BEFORE_COMPACTION && emptyNodes > nodes - emptyNodes) {
+            compact();
+        }
+    }
+
+    public void clear() {
+        values.clear();
+        root = null;
+        nodes = 0;
+        emptyNodes = 0;
+    }
+
+    /**
+     * Values within maxDistance edits of the term (ignoring case), closest first,
+     * then alphabetically, at most limit of them
+     */
+    public List<FuzzyMatch> search(String term, int maxDistance, int limit) {
+        List<FuzzyMatch> matches = new ArrayList<>();
+        if (root == null || term == null || term.isBlank()) {
+            return matches;
+        }
+        String normalized = normalize(term);
+
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(normalized, node.word);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.idCount; i++) {
+                    long id = node.ids[i];
+                    matches.add(new FuzzyMatch(id, values.get(id), distance));
+                }
+            }
+            if (node.children != null) {
+                // Triangle inequality: only edges in [distance - max, distance + max] can hold matches
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.push(child.getValue());
+                    }
+                }
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(FuzzyMatch::getDistance)
+                .thenComparing(FuzzyMatch::getName, String.CASE_INSENSITIVE_ORDER));
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    private void insert(long id, String word) {
+        if (root == null) {
+            root = new Node(word);
+            root.addId(id);
+            nodes++;
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                if (node.idCount == 0) {
+                    emptyNodes--;
+                }
+                node.addId(id);
+                return;
+            }
+            if (node.children == null) {
+                node.children = new HashMap<>(4);
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                child = new Node(word);
+                child.addId(id);
+                node.children.put(distance, child);
+                nodes++;
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        while (node != null) {
+            int distance = distance(word, node.word);
+            if (distance == 0) {
+                return node;
+            }
+            node = node.children == null ? null : node.children.get(distance);
+        }
+        return null;
+    }
+
+    private void compact() {
+        Map<Long, String> live = new HashMap<>(values);
+        clear();
+        live.forEach(this::put);
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Levenshtein distance with two rolling rows
+     */
+    static int distance(String a, String b) {
+        if (a.length() < b.length()) {
+            String swap = a;
+            a = b;
+            b = swap;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Node {
+
+        private final String word;
+        private long[] ids = new long[1];
+        private int idCount;
+        private Map<Integer, Node> children;
+
+        Node(String word) {
+            this.word = word;
+        }
+
+        void addId(long id) {
+            if (idCount == ids.length) {
+                ids = Arrays.copyOf(ids, idCount * 2);
+            }
+            ids[idCount++] = id;
+        }
+
+        boolean removeId(long id) {
+            for (int i = 0; i < idCount; i++) {
+                if (ids[i] == id) {
+                    ids[i] = ids[--idCount];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
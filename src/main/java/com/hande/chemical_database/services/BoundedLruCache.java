@@ -0,0 +1,110 @@
+package com.hande.chemical_database.services;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small thread-safe LRU cache bounded by the total weight of its values
+ * (bytes for images, 1 per entry for plain objects). Keeps hit and miss
+ * counters so callers can expose them on a stats endpoint.
+ */
+public class BoundedLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ToLongFunction<V> weigher;
+    private final long maxWeight;
+    private long weight;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public BoundedLruCache(long maxWeight, ToLongFunction<V> weigher) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Cache max weight must be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Cache bounded by number of entries
+     */
+    public static <K, V> BoundedLruCache<K, V> ofMaxEntries(int maxEntries) {
+        return new BoundedLruCache<>(maxEntries, value -> 1L);
+    }
+
+    public synchronized V get(K key) {
+        V value = entries.get(key);
+        if (value != null) {
+            hits.incrementAndGet();
+        } else {
+            misses.incrementAndGet();
+        }
+        return value;
+    }
+
+    public synchronized void put(K key, V value) {
+        long valueWeight = weigher.applyAsLong(value);
+        if (valueWeight > maxWeight) {
+            return; // Would evict everything else, not worth caching
+        }
+
+        V previous = entries.put(key, value);
+        if (previous != null) {
+            weight -= weigher.applyAsLong(previous);
+        }
+        weight += valueWeight;
+
+        Iterator<Map.Entry<K, V>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            Map.Entry<K, V> entry = eldest.next();
+            weight -= weigher.applyAsLong(entry.getValue());
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public synchronized void evict(K key) {
+        V removed = entries.remove(key);
+        if (removed != null) {
+            weight -= weigher.applyAsLong(removed);
+        }
+    }
+
+    public synchronized void evictIf(Predicate<V> condition) {
+        Iterator<V> values = entries.values().iterator();
+        while (values.hasNext()) {
+            V value = values.next();
+            if (condition.test(value)) {
+                weight -= weigher.applyAsLong(value);
+                values.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long requests = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", entries.size());
+        stats.put("weight", weight);
+        stats.put("maxWeight", maxWeight);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.get());
+        stats.put("hitRatio", requests == 0 ? 0.0 : (double) hitCount / requests);
+        return stats;
+    }
+}
@@ -0,0 +1,257 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
+import com.hande.chemical_database.models.FuzzyMatch;
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Trigram indexes over chemical name, storage and responsible, so "contains" searches
+ * resolve to ids in memory instead of running LOWER(x) LIKE '%term%' table scans, plus a
+ * BK-tree over names for typo-tolerant lookups.
+ *
+ * Built once the application is ready and kept current from ChemicalsChangedEvent
+ * (create/update/delete in ChemicalServiceImpl, CSV imports). An "all" event (e.g. a bulk
+ * delete) rebuilds next to the live indexes and swaps, so searches are not blocked meanwhile.
+ * Until it is built, or when a term matches more than app.search.index.max-ids rows,
+ * callers fall back to the repository LIKE query.
+ */
+@Service
+@Slf4j
+public class ChemicalSearchIndex {
+
+    public enum Field { NAME, STORAGE, RESPONSIBLE }
+
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ChemicalRepo chemicalRepo;
+    private final boolean enabled;
+    private final int maxIds;
+
+    // Replaced as a whole by a rebuild. Readers and per-row updates of the live instance
+    // share the read/write lock, a rebuild fills a private instance and swaps it in
+    private volatile Indexes indexes = new Indexes();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serializes per-row updates so a re-read is applied before the next listener re-reads,
+    // otherwise an older read of a row could overwrite a newer one. While a rebuild runs,
+    // the ids changed meanwhile are collected and re-read into the new indexes before the swap.
+    private final Object updateLock = new Object();
+    private Set<Long> changedDuringBuild;
+    private volatile boolean ready;
+
+    public ChemicalSearchIndex(ChemicalRepo chemicalRepo,
+                               @Value("${app.search.index.enabled:true}") boolean enabled,
+                               @Value("${app.search.index.max-ids:5000}") int maxIds) {
+        this.chemicalRepo = chemicalRepo;
+        this.enabled = enabled;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Page of chemicals whose field contains the term (ignoring case), sorted and paged by
+     * the database exactly like the ContainingIgnoreCase repository queries. Empty when the
+     * index cannot answer and the caller should run the LIKE query.
+     */
+    public Optional<Page<Chemicals>> search(Field field, String term, Pageable pageable) {
+        if (!ready || term == null || term.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<Long> ids;
+        lock.readLock().lock();
+        try {
+            ids = indexes.indexFor(field).search(term);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        if (ids.isEmpty()) {
+            return Optional.of(Page.empty(pageable));
+        }
+        if (ids.size() > maxIds) {
+            // Matches a large share of the table, a scan is as good as a huge IN list
+            return Optional.empty();
+        }
+
+        List<Chemicals> content = chemicalRepo.findByIdIn(ids, pageable);
+        return Optional.of(new PageImpl<>(content, pageable, ids.size()));
+    }
+
+    /**
+     * Chemicals whose name is within maxDistance edits of the given name, closest first
+     *
+     * @throws IllegalStateException if the index is disabled or not built yet
+     */
+    public List<FuzzyMatch> fuzzyNames(String name, int maxDistance, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Chemical search index is not available");
+        }
+        lock.readLock().lock();
+        try {
+            return indexes.nameTree.search(name, maxDistance, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        lock.readLock().lock();
+        try {
+            Indexes current = indexes;
+            return Map.of(
+                    "ready", ready,
+                    "names", current.nameIndex.size(),
+                    "storages", current.storageIndex.size(),
+                    "responsibles", current.responsibleIndex.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Loads the whole table into new indexes and swaps them in; searches keep using the
+     * previous indexes (or the database, before the first build) until then
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void build() {
+        if (!enabled) {
+            log.info("Chemical search index disabled");
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        synchronized (updateLock) {
+            changedDuringBuild = new HashSet<>();
+        }
+        Indexes built = new Indexes();
+        try {
+            long afterId = 0;
+            List<Object[]> rows;
+            do {
+                rows = chemicalRepo.findSearchFieldsAfterId(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+                for (Object[] row : rows) {
+                    built.index(row);
+                }
+                if (!rows.isEmpty()) {
+                    afterId = (Long) rows.get(rows.size() - 1)[0];
+                }
+            } while (rows.size() == LOAD_BATCH_SIZE);
+
+            synchronized (updateLock) {
+                // The keyset pages may have passed these rows before they changed
+                if (!changedDuringBuild.isEmpty()) {
+                    refresh(built, changedDuringBuild);
+                }
+                indexes = built;
+                ready = true;
+            }
+        } catch (Exception e) {
+            // The previous indexes miss whatever triggered the rebuild, the next "all" event retries
+            ready = false;
+            log.error("Failed to build chemical search index, searches use the database", e);
+            return;
+        } finally {
+            synchronized (updateLock) {
+                changedDuringBuild = null;
+            }
+        }
+        log.info("Chemical search index built: {} chemicals in {} ms", built.nameIndex.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChemicalsChanged(ChemicalsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        if (event.isAll()) {
+            build();
+            return;
+        }
+
+        try {
+            synchronized (updateLock) {
+                if (changedDuringBuild != null) {
+                    changedDuringBuild.addAll(event.getIds());
+                }
+                if (!ready) {
+                    // Not built (yet), the next build reads these rows
+                    return;
+                }
+                lock.writeLock().lock();
+                try {
+                    refresh(indexes, event.getIds());
+                } finally {
+                    lock.writeLock().unlock();
+                }
+            }
+        } catch (Exception e) {
+            // A stale index would hide rows, stop using it until it is rebuilt
+            ready = false;
+            log.error("Failed to update chemical search index, rebuilding", e);
+            build();
+        }
+    }
+
+    // Re-read the given rows, ids that are gone were deleted
+    private void refresh(Indexes target, Collection<Long> ids) {
+        Set<Long> deleted = new HashSet<>(ids);
+        for (Object[] row : chemicalRepo.findSearchFieldsByIdIn(ids)) {
+            deleted.remove((Long) row[0]);
+            target.index(row);
+        }
+        deleted.forEach(target::remove);
+    }
+
+    private static final class Indexes {
+
+        private final TrigramIndex nameIndex = new TrigramIndex();
+        private final TrigramIndex storageIndex = new TrigramIndex();
+        private final TrigramIndex responsibleIndex = new TrigramIndex();
+        private final BkTree nameTree = new BkTree();
+
+        void index(Object[] row) {
+            long id = (Long) row[0];
+            nameIndex.put(id, (String) row[1]);
+            nameTree.put(id, (String) row[1]);
+            storageIndex.put(id, (String) row[2]);
+            responsibleIndex.put(id, (String) row[3]);
+        }
+
+        void remove(long id) {
+            nameIndex.remove(id);
+            storageIndex.remove(id);
+            responsibleIndex.remove(id);
+            nameTree.remove(id);
+        }
+
+        TrigramIndex indexFor(Field field) {
+            switch (field) {
+                case STORAGE:
+                    return storageIndex;
+                case RESPONSIBLE:
+                    return responsibleIndex;
+                default:
+                    return nameIndex;
+            }
+        }
+    }
+}
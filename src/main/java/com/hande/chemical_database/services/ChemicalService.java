@@ -1,7 +1,10 @@
 package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.models.ChemicalBulkUpdate;
+import com.hande.chemical_database.models.ChemicalBulkUpdateResult;
 import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.ListVersion;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -22,11 +25,22 @@ public interface ChemicalService {
 
     List<ChemicalDTO> getAllChemicals();
 
+    // Changes whenever getAllChemicals() would return something different
+    ListVersion getListVersion();
+
     Optional<ChemicalDTO> getChemicalById(Long id);
 
     boolean deleteChemical(Long id);
     boolean deleteChemicalByName(String name);
 
+    // One bulk DELETE for the rows whose storage / responsible equal the given values,
+    // null or blank filters match every row. Returns the number of chemicals deleted.
+    int deleteChemicals(String storage, String responsible);
+
+    // Sets storage / responsible / toxicState on many rows with set-based UPDATEs,
+    // throws IllegalArgumentException for an empty or ambiguous request
+    ChemicalBulkUpdateResult bulkUpdateChemicals(ChemicalBulkUpdate update);
+
     Page<Chemicals> listChemicalsByName(String filterCriteria, Pageable pageRequest);
 }
 
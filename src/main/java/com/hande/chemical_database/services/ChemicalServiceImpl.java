@@ -2,18 +2,33 @@ package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.exceptions.ResourceNotFoundException;
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
 import com.hande.chemical_database.mappers.ChemicalMapper;
+import com.hande.chemical_database.models.ChemicalBulkUpdate;
+import com.hande.chemical_database.models.ChemicalBulkUpdateResult;
 import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.ChemicalSearchCriteria;
+import com.hande.chemical_database.models.ListVersion;
 import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.utils.CasNumbers;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -23,9 +38,17 @@ public class ChemicalServiceImpl implements ChemicalService {
     private final ChemicalRepo chemicalRepo;
     private final ChemicalMapper chemicalMapper;
     private final QRCodeService qrCodeService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChemicalSearchIndex chemicalSearchIndex;
+    private final EntityManager entityManager;
+
+    // Largest id list accepted by bulkUpdateChemicals, ids are queried in IN lists of BULK_CHUNK
+    public static final int MAX_BULK_IDS = 10_000;
+    private static final int BULK_CHUNK = 1000;
 
     @Override
     public ChemicalDTO createChemicals(ChemicalDTO chemical) {
+        requireValidCasNo(chemical.getCasNo());
         Chemicals savedChemical = chemicalRepo.save(chemicalMapper.chemicalDTOToChemical(chemical));
 
         // Auto-generate QR code for new chemical
@@ -36,12 +59,14 @@ public class ChemicalServiceImpl implements ChemicalService {
         } catch (Exception e) {
             log.warn("Failed to generate QR code for new chemical {}: {}", savedChemical.getName(), e.getMessage());
         }
+        eventPublisher.publishEvent(ChemicalsChangedEvent.of(savedChemical.getId()));
 
         return chemicalMapper.chemicalToChemicalDTO(savedChemical);
     }
 
     @Override
     public Optional<ChemicalDTO> updateChemicals(ChemicalDTO chemical) {
+        requireValidCasNo(chemical.getCasNo());
         Optional<Chemicals> chemicalDb = chemicalRepo.findByNameIgnoreCase(chemical.getName());
         if(chemicalDb.isPresent()) {
             Chemicals chemicalUpdate = chemicalDb.get();
@@ -56,6 +81,7 @@ public class ChemicalServiceImpl implements ChemicalService {
             chemicalUpdate.setWeight(chemical.getWeight());
 
             Chemicals updatedChemical = chemicalRepo.save(chemicalUpdate);
+            eventPublisher.publishEvent(ChemicalsChangedEvent.of(updatedChemical.getId()));
             return Optional.of(chemicalMapper.chemicalToChemicalDTO(updatedChemical));
         } else {
             throw new ResourceNotFoundException("Record not found with name : " + chemical.getName());
@@ -64,6 +90,7 @@ public class ChemicalServiceImpl implements ChemicalService {
 
     @Override
     public Optional<ChemicalDTO> updateChemicalById(Long id, ChemicalDTO chemicalDTO) {
+        requireValidCasNo(chemicalDTO.getCasNo());
         Optional<Chemicals> chemicalDb = chemicalRepo.findById(id);
         if (chemicalDb.isPresent()) {
             Chemicals chemicalUpdate = chemicalDb.get();
@@ -80,6 +107,7 @@ public class ChemicalServiceImpl implements ChemicalService {
             chemicalUpdate.setWeight(chemicalDTO.getWeight());
 
             Chemicals updatedChemical = chemicalRepo.save(chemicalUpdate);
+            eventPublisher.publishEvent(ChemicalsChangedEvent.of(updatedChemical.getId()));
             log.info("Successfully updated chemical with ID: {} and name: {}",
                     updatedChemical.getId(), updatedChemical.getName());
 
@@ -92,9 +120,12 @@ public class ChemicalServiceImpl implements ChemicalService {
 
     @Override
     public List<ChemicalDTO> getAllChemicals() {
-        return chemicalRepo.findAll().stream()
-                .map(chemicalMapper::chemicalToChemicalDTO)
-                .collect(Collectors.toList());
+        return chemicalRepo.findAllDtos();
+    }
+
+    @Override
+    public ListVersion getListVersion() {
+        return ListVersion.of(chemicalRepo.findListVersion().get(0));
     }
 
     @Override
@@ -108,6 +139,8 @@ public class ChemicalServiceImpl implements ChemicalService {
         Optional<Chemicals> chemicalsDb = chemicalRepo.findById(id);
         if(chemicalsDb.isPresent()) {
             chemicalRepo.deleteById(id);
+            qrCodeService.deleteQRCodeImage(chemicalsDb.get().getQrCode());
+            eventPublisher.publishEvent(ChemicalsChangedEvent.of(id));
             return true;
         } else {
             throw new ResourceNotFoundException("Record not found with id : " + id);
@@ -116,16 +149,132 @@ public class ChemicalServiceImpl implements ChemicalService {
 
     @Override
     public boolean deleteChemicalByName(String name) {
-        if(chemicalRepo.existsByNameIgnoreCase(name)) {
-            chemicalRepo.deleteByName(name);
+        Optional<Chemicals> chemicalsDb = chemicalRepo.findByNameIgnoreCase(name);
+        if(chemicalsDb.isPresent()) {
+            chemicalRepo.deleteByName(chemicalsDb.get().getName());
+            qrCodeService.deleteQRCodeImage(chemicalsDb.get().getQrCode());
+            eventPublisher.publishEvent(ChemicalsChangedEvent.of(chemicalsDb.get().getId()));
             return true;
         } else {
             throw new ResourceNotFoundException("Record not found with name : " + name);
         }
     }
 
+    @Override
+    @Transactional
+    public int deleteChemicals(String storage, String responsible) {
+        String storageFilter = emptyToNull(storage);
+        String responsibleFilter = emptyToNull(responsible);
+
+        // Images first, their subquery selects the chemicals that are deleted next
+        int images = qrCodeService.deleteQRCodeImages(storageFilter, responsibleFilter);
+        int deleted = chemicalRepo.deleteAllMatching(storageFilter, responsibleFilter);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(ChemicalsChangedEvent.all());
+        }
+        log.info("Bulk deleted {} chemicals and {} QR code images (storage: {}, responsible: {})",
+                deleted, images, storageFilter, responsibleFilter);
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    public ChemicalBulkUpdateResult bulkUpdateChemicals(ChemicalBulkUpdate update) {
+        if (update.getStorage() == null && update.getResponsible() == null && update.getToxicState() == null) {
+            throw new IllegalArgumentException("Nothing to update, set storage, responsible or toxicState");
+        }
+        if (update.getStorage() != null && update.getStorage().isBlank()) {
+            throw new IllegalArgumentException("storage must not be blank");
+        }
+        if (update.getResponsible() != null && update.getResponsible().isBlank()) {
+            throw new IllegalArgumentException("responsible must not be blank");
+        }
+        String storage = update.getStorage() != null ? update.getStorage().trim() : null;
+        String responsible = update.getResponsible() != null ? update.getResponsible().trim() : null;
+
+        ChemicalBulkUpdateResult result = new ChemicalBulkUpdateResult();
+        List<Long> ids = resolveBulkIds(update, result);
+
+        // One UPDATE and one change event per chunk keeps the IN lists (and the
+        // index refresh queries behind the events) bounded
+        LocalDateTime now = LocalDateTime.now();
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + BULK_CHUNK, ids.size()));
+            result.setUpdated(result.getUpdated()
+                    + chemicalRepo.updateFieldsByIdIn(chunk, storage, responsible, update.getToxicState(), now));
+            eventPublisher.publishEvent(new ChemicalsChangedEvent(chunk));
+        }
+        result.setIds(ids);
+
+        log.info("Bulk updated {} chemicals (storage: {}, responsible: {}, toxicState: {})",
+                result.getUpdated(), storage, responsible, update.getToxicState());
+        return result;
+    }
+
     @Override
     public Page<Chemicals> listChemicalsByName(String filterCriteria, Pageable pageRequest) {
-        return chemicalRepo.findByNameContainingIgnoreCase(filterCriteria, pageRequest);
+        return chemicalSearchIndex.search(ChemicalSearchIndex.Field.NAME, filterCriteria, pageRequest)
+                .orElseGet(() -> chemicalRepo.findByNameContainingIgnoreCase(filterCriteria, pageRequest));
+    }
+
+    // Existing ids in ascending order, unknown requested ids go to result.notFound
+    private List<Long> resolveBulkIds(ChemicalBulkUpdate update, ChemicalBulkUpdateResult result) {
+        boolean byIds = update.getIds() != null && !update.getIds().isEmpty();
+        if (byIds == (update.getFilter() != null)) {
+            throw new IllegalArgumentException("Select the chemicals either by ids or by filter");
+        }
+
+        if (byIds) {
+            Set<Long> requested = new LinkedHashSet<>(update.getIds());
+            requested.remove(null);
+            if (requested.size() > MAX_BULK_IDS) {
+                throw new IllegalArgumentException("At most " + MAX_BULK_IDS + " ids are accepted per request");
+            }
+            List<Long> requestedIds = new ArrayList<>(requested);
+            List<Long> existing = new ArrayList<>(requestedIds.size());
+            for (int from = 0; from < requestedIds.size(); from += BULK_CHUNK) {
+                existing.addAll(chemicalRepo.findExistingIds(
+                        requestedIds.subList(from, Math.min(from + BULK_CHUNK, requestedIds.size()))));
+            }
+            existing.sort(null);
+            requested.removeAll(existing);
+            result.getNotFound().addAll(requested);
+            return existing;
+        }
+
+        ChemicalSearchCriteria filter = update.getFilter();
+        if (!hasCriteria(filter)) {
+            // An empty filter would rewrite the whole table
+            throw new IllegalArgumentException("The filter needs at least one criterion");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Chemicals> root = query.from(Chemicals.class);
+        query.select(root.<Long>get("id"))
+                .where(ChemicalSpecifications.matchingExactly(filter).toPredicate(root, query, cb))
+                .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private static boolean hasCriteria(ChemicalSearchCriteria filter) {
+        return hasText(filter.getName()) || hasText(filter.getCasNo()) || hasText(filter.getStorage())
+                || hasText(filter.getResponsible()) || hasText(filter.getProducer())
+                || filter.getToxicState() != null
+                || filter.getOrderDateFrom() != null || filter.getOrderDateTo() != null;
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    // CSV imports keep malformed historic values (unindexed), API writes must be valid
+    private static void requireValidCasNo(String casNo) {
+        if (casNo != null && !casNo.isBlank() && !CasNumbers.isValid(casNo)) {
+            throw new IllegalArgumentException("Invalid CAS number: " + casNo);
+        }
     }
-}
\ No newline at end of file
+}
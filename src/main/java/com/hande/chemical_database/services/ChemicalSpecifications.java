@@ -0,0 +1,105 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.models.ChemicalSearchCriteria;
+import com.hande.chemical_database.utils.CasNumbers;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds one WHERE clause from any subset of the chemical search criteria
+ */
+public final class ChemicalSpecifications {
+
+    private ChemicalSpecifications() {
+    }
+
+    /**
+     * @throws IllegalArgumentException if orderDateFrom is after orderDateTo
+     */
+    public static Specification<Chemicals> matching(ChemicalSearchCriteria criteria) {
+        requireValidDateRange(criteria);
+
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            addContains(predicates, root, cb, "name", criteria.getName());
+            addContains(predicates, root, cb, "storage", criteria.getStorage());
+            addContains(predicates, root, cb, "responsible", criteria.getResponsible());
+            addContains(predicates, root, cb, "producer", criteria.getProducer());
+            addExactCriteria(predicates, root, cb, criteria);
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Like matching(), but name, storage, responsible and producer must equal the given
+     * (trimmed) value, as in the bulk deletes. Bulk writes use this so that "Cabinet A"
+     * does not also pick "Cabinet AB".
+     *
+     * @throws IllegalArgumentException if orderDateFrom is after orderDateTo
+     */
+    public static Specification<Chemicals> matchingExactly(ChemicalSearchCriteria criteria) {
+        requireValidDateRange(criteria);
+
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            addEqual(predicates, root, cb, "name", criteria.getName());
+            addEqual(predicates, root, cb, "storage", criteria.getStorage());
+            addEqual(predicates, root, cb, "responsible", criteria.getResponsible());
+            addEqual(predicates, root, cb, "producer", criteria.getProducer());
+            addExactCriteria(predicates, root, cb, criteria);
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    private static void requireValidDateRange(ChemicalSearchCriteria criteria) {
+        if (criteria.getOrderDateFrom() != null && criteria.getOrderDateTo() != null
+                && criteria.getOrderDateFrom().isAfter(criteria.getOrderDateTo())) {
+            throw new IllegalArgumentException("orderDateFrom must not be after orderDateTo");
+        }
+    }
+
+    // Equality and ranges can use the indexes on Chemicals
+    private static void addExactCriteria(List<Predicate> predicates, Root<Chemicals> root, CriteriaBuilder cb,
+                                         ChemicalSearchCriteria criteria) {
+        if (criteria.getCasNo() != null && !criteria.getCasNo().isBlank()) {
+            String canonical = CasNumbers.normalize(criteria.getCasNo());
+            predicates.add(canonical != null
+                    ? cb.equal(root.get("casNoNormalized"), canonical)
+                    : cb.equal(root.get("casNo"), criteria.getCasNo().trim()));
+        }
+        if (criteria.getToxicState() != null) {
+            predicates.add(cb.equal(root.get("toxicState"), criteria.getToxicState()));
+        }
+        if (criteria.getOrderDateFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(root.get("orderDate"), criteria.getOrderDateFrom()));
+        }
+        if (criteria.getOrderDateTo() != null) {
+            predicates.add(cb.lessThanOrEqualTo(root.get("orderDate"), criteria.getOrderDateTo()));
+        }
+    }
+
+    private static void addEqual(List<Predicate> predicates, Root<Chemicals> root, CriteriaBuilder cb,
+                                 String attribute, String value) {
+        if (value != null && !value.isBlank()) {
+            predicates.add(cb.equal(root.get(attribute), value.trim()));
+        }
+    }
+
+    private static void addContains(List<Predicate> predicates, Root<Chemicals> root, CriteriaBuilder cb,
+                                    String attribute, String value) {
+        String pattern = KeysetCursor.containsPattern(value);
+        if (pattern != null) {
+            predicates.add(cb.like(cb.lower(root.get(attribute)), pattern, '!'));
+        }
+    }
+}
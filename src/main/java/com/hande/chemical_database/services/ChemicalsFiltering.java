@@ -1,12 +1,18 @@
 package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.models.CasBatchLookup;
 import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.ChemicalSearchCriteria;
+import com.hande.chemical_database.models.CursorPage;
+import com.hande.chemical_database.models.FacetCount;
+import com.hande.chemical_database.models.FuzzyMatch;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /*
@@ -18,6 +24,11 @@ public interface ChemicalsFiltering {
 
     List<Chemicals> searchByCASNo(String CASNo);
 
+    // All containers of a substance, the CAS number may use any formatting
+    List<ChemicalDTO> findByCasNumber(String casNo);
+
+    CasBatchLookup lookupCasNumbers(List<String> casNumbers);
+
     PageRequest buildPageRequest(Integer pageNumber, Integer pageSize);
 
     Page<Chemicals> listChemicalsByName(Chemicals name, Pageable pageable);
@@ -25,4 +36,16 @@ public interface ChemicalsFiltering {
     Page<Chemicals> listChemicalsByOwner(Chemicals reponsible, Pageable pageable);
     Page<Chemicals> listChemicalsByOrderDate(Chemicals orderDate, Pageable pageable);
     Page<Chemicals> showToxicChemicals(Chemicals toxicChemicals, Pageable pageable);
+
+    // Any subset of the criteria in one query, instead of one listChemicalsBy... call per field
+    Page<Chemicals> searchChemicals(ChemicalSearchCriteria criteria, Pageable pageable);
+
+    // Most frequent values of storage, responsible, toxicState and producer among rows matching the criteria
+    Map<String, List<FacetCount>> facetChemicals(ChemicalSearchCriteria criteria);
+
+    // Typo-tolerant name lookup, maxDistance and limit fall back to defaults when null
+    List<FuzzyMatch> fuzzySearchByName(String name, Integer maxDistance, Integer limit);
+
+    // Keyset listing ordered by (name, id), no count query; cursor null for the first page
+    CursorPage<ChemicalDTO> listChemicalsAfter(String cursor, Integer pageSize, String nameFilter);
 }
@@ -2,19 +2,39 @@ package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.entities.Chemicals;
 import com.hande.chemical_database.mappers.ChemicalMapper;
+import com.hande.chemical_database.models.CasBatchLookup;
 import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.ChemicalSearchCriteria;
+import com.hande.chemical_database.models.CursorPage;
+import com.hande.chemical_database.models.FacetCount;
+import com.hande.chemical_database.models.FuzzyMatch;
 import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.utils.CasNumbers;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /*
  * 17/02/2025
@@ -27,8 +47,20 @@ public class ChemicalsFilteringImpl implements ChemicalsFiltering {
 
     private final ChemicalRepo chemicalRepo;
     private final ChemicalMapper chemicalMapper;
+    private final ChemicalSearchIndex chemicalSearchIndex;
+    private final EntityManager entityManager;
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_PAGE_SIZE = 25;
+    // Upper bound of one batch CAS lookup, queried in IN lists of CAS_QUERY_CHUNK values
+    public static final int MAX_CAS_BATCH = 10_000;
+    private static final int CAS_QUERY_CHUNK = 1000;
+    private static final List<String> FACET_FIELDS = List.of("storage", "responsible", "toxicState", "producer");
+    // Values per facet, most frequent first
+    private static final int FACET_LIMIT = 20;
+    private static final int DEFAULT_FUZZY_LIMIT = 10;
+    private static final int MAX_FUZZY_LIMIT = 50;
+    // Capping the radius keeps lookups fast, wider radii visit most of the BK-tree (see BkTreeSearchBenchmark)
+    private static final int MAX_FUZZY_DISTANCE = 3;
 
     @Override
     public Optional<ChemicalDTO> searchByName(String name) {
@@ -38,7 +70,57 @@ public class ChemicalsFilteringImpl implements ChemicalsFiltering {
 
     @Override
     public List<Chemicals> searchByCASNo(String CasNo) {
-        return chemicalRepo.findByCasNo(CasNo);
+        String canonical = CasNumbers.normalize(CasNo);
+        return canonical != null ? chemicalRepo.findByCasNoNormalized(canonical) : chemicalRepo.findByCasNo(CasNo);
+    }
+
+    @Override
+    public List<ChemicalDTO> findByCasNumber(String casNo) {
+        String canonical = CasNumbers.normalize(casNo);
+        if (canonical == null) {
+            throw new IllegalArgumentException("Invalid CAS number: " + casNo);
+        }
+        return chemicalRepo.findByCasNoNormalized(canonical).stream()
+                .map(chemicalMapper::chemicalToChemicalDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public CasBatchLookup lookupCasNumbers(List<String> casNumbers) {
+        if (casNumbers == null || casNumbers.size() > MAX_CAS_BATCH) {
+            throw new IllegalArgumentException("Between 0 and " + MAX_CAS_BATCH + " CAS numbers are accepted per request");
+        }
+
+        CasBatchLookup result = new CasBatchLookup();
+        Set<String> canonical = new LinkedHashSet<>();
+        for (String casNo : casNumbers) {
+            String normalized = CasNumbers.normalize(casNo);
+            if (normalized == null) {
+                result.getInvalid().add(casNo);
+            } else {
+                canonical.add(normalized);
+            }
+        }
+
+        Map<String, List<ChemicalDTO>> found = new HashMap<>();
+        List<String> pending = new ArrayList<>(canonical);
+        for (int from = 0; from < pending.size(); from += CAS_QUERY_CHUNK) {
+            List<String> chunk = pending.subList(from, Math.min(from + CAS_QUERY_CHUNK, pending.size()));
+            for (Chemicals chemical : chemicalRepo.findByCasNoNormalizedIn(chunk)) {
+                found.computeIfAbsent(chemical.getCasNoNormalized(), key -> new ArrayList<>())
+                        .add(chemicalMapper.chemicalToChemicalDTO(chemical));
+            }
+        }
+
+        for (String casNo : canonical) {
+            List<ChemicalDTO> chemicals = found.get(casNo);
+            if (chemicals == null) {
+                result.getNotFound().add(casNo);
+            } else {
+                result.getMatches().put(casNo, chemicals);
+            }
+        }
+        return result;
     }
 
     @Override
@@ -71,7 +153,8 @@ public class ChemicalsFilteringImpl implements ChemicalsFiltering {
         if (name == null || name.trim().isEmpty()) {
             return chemicalRepo.findAll(pageable);
         }
-        return chemicalRepo.findByNameContainingIgnoreCase(name, pageable);
+        return chemicalSearchIndex.search(ChemicalSearchIndex.Field.NAME, name, pageable)
+                .orElseGet(() -> chemicalRepo.findByNameContainingIgnoreCase(name, pageable));
     }
 
     @Override
@@ -80,7 +163,8 @@ public class ChemicalsFilteringImpl implements ChemicalsFiltering {
         if (storage == null || storage.trim().isEmpty()) {
             return chemicalRepo.findAll(pageable);
         }
-        return chemicalRepo.findByStorageContainingIgnoreCase(storage, pageable);
+        return chemicalSearchIndex.search(ChemicalSearchIndex.Field.STORAGE, storage, pageable)
+                .orElseGet(() -> chemicalRepo.findByStorageContainingIgnoreCase(storage, pageable));
     }
 
     @Override
@@ -89,7 +173,8 @@ public class ChemicalsFilteringImpl implements ChemicalsFiltering {
         if (owner == null || owner.trim().isEmpty()) {
             return chemicalRepo.findAll(pageable);
         }
-        return chemicalRepo.findByResponsibleContainingIgnoreCase(owner, pageable);
+        return chemicalSearchIndex.search(ChemicalSearchIndex.Field.RESPONSIBLE, owner, pageable)
+                .orElseGet(() -> chemicalRepo.findByResponsibleContainingIgnoreCase(owner, pageable));
     }
 
     @Override
@@ -108,6 +193,78 @@ public class ChemicalsFilteringImpl implements ChemicalsFiltering {
         return chemicalRepo.findByToxicState(true, pageable);
     }
 
+    @Override
+    public Page<Chemicals> searchChemicals(ChemicalSearchCriteria criteria, Pageable pageable) {
+        return chemicalRepo.findAll(ChemicalSpecifications.matching(criteria), pageable);
+    }
+
+    @Override
+    public Map<String, List<FacetCount>> facetChemicals(ChemicalSearchCriteria criteria) {
+        Specification<Chemicals> specification = ChemicalSpecifications.matching(criteria);
+        Map<String, List<FacetCount>> facets = new LinkedHashMap<>();
+        for (String field : FACET_FIELDS) {
+            facets.put(field, countBy(specification, field));
+        }
+        return facets;
+    }
+
+    // SELECT field, COUNT(*) ... WHERE <criteria> GROUP BY field ORDER BY COUNT(*) DESC
+    private List<FacetCount> countBy(Specification<Chemicals> specification, String field) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Object[]> query = cb.createQuery(Object[].class);
+        Root<Chemicals> root = query.from(Chemicals.class);
+        Expression<Object> value = root.get(field);
+        Expression<Long> count = cb.count(root);
+
+        query.multiselect(value, count).groupBy(value).orderBy(cb.desc(count));
+        Predicate where = specification.toPredicate(root, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(FACET_LIMIT)
+                .getResultList().stream()
+                .map(row -> new FacetCount(row[0], (Long) row[1]))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<FuzzyMatch> fuzzySearchByName(String name, Integer maxDistance, Integer limit) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        int distance;
+        if (maxDistance == null) {
+            // About one typo per four characters
+            distance = Math.max(1, Math.min(MAX_FUZZY_DISTANCE, name.trim().length() / 4));
+        } else if (maxDistance < 0 || maxDistance > MAX_FUZZY_DISTANCE) {
+            throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_FUZZY_DISTANCE);
+        } else {
+            distance = maxDistance;
+        }
+        int max = limit == null || limit <= 0 ? DEFAULT_FUZZY_LIMIT : Math.min(limit, MAX_FUZZY_LIMIT);
+        return chemicalSearchIndex.fuzzyNames(name, distance, max);
+    }
+
+    @Override
+    public CursorPage<ChemicalDTO> listChemicalsAfter(String cursor, Integer pageSize, String nameFilter) {
+        int size = buildPageRequest(1, pageSize != null && pageSize > 0 ? pageSize : null).getPageSize();
+        String pattern = KeysetCursor.containsPattern(nameFilter);
+        // One extra row tells whether there is a next page
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<ChemicalDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = chemicalRepo.findDtosOrderByName(pattern, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = chemicalRepo.findDtosAfterName(after.getKey(), after.getId(), pattern, limit);
+        }
+
+        return CursorPage.of(rows, size, last -> new KeysetCursor(last.getName(), last.getId()).encode());
+    }
+
     private ChemicalDTO convertToDTO(Chemicals chemical) {
         return ChemicalDTO.builder()
                 .id(chemical.getId())
@@ -1,11 +1,26 @@
 package com.hande.chemical_database.services;
 
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.models.CsvImportReport;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 /*
  * 17/02/2025
  * handebarkan
  */
 public interface ChemicalsUploadCsv {
     Integer uploadChemicals(MultipartFile file);
+
+    // Streams the file and commits every chunkSize rows in its own transaction;
+    // INSERT skips names that already exist, UPSERT updates them when their content changed
+    CsvImportReport uploadChemicalsInChunks(MultipartFile file, Integer chunkSize, ImportMode mode);
+
+    // Same import from an already validated stream, reports progress and stops between chunks when cancelled
+    CsvImportReport importChemicalsInChunks(String filename, InputStream input, Integer chunkSize, ImportMode mode,
+                                            ImportProgress progress);
+
+    // Checks the extension and the chunked import size limit, throws IllegalArgumentException
+    void validateChunkedFile(MultipartFile file);
 }
@@ -1,19 +1,31 @@
 package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
+import com.hande.chemical_database.models.CsvImportReport;
 import com.hande.chemical_database.repositories.ChemicalRepo;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,10 +34,25 @@ import java.util.stream.Collectors;
 public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
 
     private final ChemicalRepo chemicalRepo;
+    private final QRCodeBatchGenerator qrCodeBatchGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExistingKeyLookup existingKeyLookup;
+    private final ParallelCsvParser parallelCsvParser;
+
+    @Value("${app.csv.max-file-size:10485760}")
+    private long maxFileSize;
+
+    @Value("${app.csv.chunked.max-file-size:536870912}")
+    private long maxChunkedFileSize;
+
+    @Value("${app.csv.chunk-size:1000}")
+    private int defaultChunkSize;
 
     @Override
     public Integer uploadChemicals(MultipartFile file) {
-        validateFile(file);
+        validateFile(file, maxFileSize);
 
         Set<Chemicals> chemicalsSet;
         try {
@@ -44,12 +71,13 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
 
         log.info("CSV: Parsed {} chemical records from file", chemicalsSet.size());
 
-        // Check for existing chemicals and filter them out
-        List<String> existingChemicals = chemicalRepo.findAllChemicalNames();
-        Set<String> existingChemicalsSet = new HashSet<>(existingChemicals);
+        // Check for existing chemicals and filter them out, only the names in the file are looked up
+        Set<String> existingNames = existingKeyLookup.existingChemicalNames(chemicalsSet.stream()
+                .map(Chemicals::getName)
+                .collect(Collectors.toSet()));
 
         Set<Chemicals> newChemicals = chemicalsSet.stream()
-                .filter(chemical -> !existingChemicalsSet.contains(chemical.getName()))
+                .filter(chemical -> !existingNames.contains(chemical.getName()))
                 .collect(Collectors.toSet());
 
         log.info("CSV: Found {} new chemicals to save (filtered out {} existing)",
@@ -60,17 +88,226 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
             return 0;
         }
 
-        // Save new chemicals
+        // Save new chemicals, inserts go out in JDBC batches (hibernate.jdbc.batch_size)
+        long saveStart = System.currentTimeMillis();
         List<Chemicals> savedChemicals = chemicalRepo.saveAll(newChemicals);
+        long saveMillis = Math.max(1, System.currentTimeMillis() - saveStart);
 
         int skippedCount = chemicalsSet.size() - newChemicals.size();
-        log.info("CSV upload completed: {} new chemicals saved, {} existing chemicals skipped",
-                savedChemicals.size(), skippedCount);
+        log.info("CSV upload completed: {} new chemicals saved, {} existing chemicals skipped ({} ms, {} rows/s)",
+                savedChemicals.size(), skippedCount, saveMillis, savedChemicals.size() * 1000L / saveMillis);
+
+        List<Long> savedIds = savedChemicals.stream()
+                .map(Chemicals::getId)
+                .collect(Collectors.toList());
+        assignQRCodes(savedIds);
+        eventPublisher.publishEvent(new ChemicalsChangedEvent(savedIds));
 
         return savedChemicals.size();
     }
 
-    private void validateFile(MultipartFile file) {
+    @Override
+    public CsvImportReport uploadChemicalsInChunks(MultipartFile file, Integer chunkSize, ImportMode mode) {
+        validateChunkedFile(file);
+
+        try (InputStream input = file.getInputStream()) {
+            return importChemicalsInChunks(file.getOriginalFilename(), input, chunkSize, mode, ImportProgress.NONE);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Error reading CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CsvImportReport importChemicalsInChunks(String filename, InputStream input, Integer chunkSize, ImportMode mode,
+                                                   ImportProgress progress) {
+        int rowsPerChunk = chunkSize != null && chunkSize > 0 ? Math.min(chunkSize, 10_000) : defaultChunkSize;
+        CsvImportReport report = new CsvImportReport(filename, rowsPerChunk, mode != null ? mode : ImportMode.INSERT);
+        long start = System.currentTimeMillis();
+
+        // Rows are read one at a time and committed per chunk, only the current chunk is held in memory
+        List<Chemicals> chunk = new ArrayList<>(rowsPerChunk);
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            // The invalid count is kept current so running jobs can report it per chunk
+            int invalidRows = parseCsvRecords(reader, chemical -> {
+                chunk.add(chemical);
+                if (chunk.size() >= rowsPerChunk) {
+                    saveChunk(report, chunk, progress);
+                }
+            }, rejected -> report.setRowsInvalid(report.getRowsInvalid() + rejected));
+            if (!chunk.isEmpty()) {
+                saveChunk(report, chunk, progress);
+            }
+            report.setRowsInvalid(invalidRows);
+        } catch (CancellationException e) {
+            // Chunks committed so far stay, the rest of the file is not read
+            report.setCancelled(true);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", filename, e);
+            throw new RuntimeException("Error reading CSV file: " + e.getMessage(), e);
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("CSV chunked upload {} ({}): {} parsed, {} saved, {} updated, {} unchanged, {} skipped, {} invalid, {} failed in {} chunks ({} ms)",
+                report.isCancelled() ? "cancelled" : "completed", report.getMode(),
+                report.getRowsParsed(), report.getRowsSaved(), report.getRowsUpdated(), report.getRowsUnchanged(),
+                report.getRowsSkipped(), report.getRowsInvalid(),
+                report.getRowsFailed(), report.getChunks().size(), report.getDurationMs());
+        return report;
+    }
+
+    private void saveChunk(CsvImportReport report, List<Chemicals> chunk, ImportProgress progress) {
+        if (progress.isCancelled()) {
+            throw new CancellationException();
+        }
+        int chunkNumber = report.getChunks().size() + 1;
+        report.addChunk(report.getMode() == ImportMode.UPSERT ? upsertChunk(chunkNumber, chunk) : saveChunk(chunkNumber, chunk));
+        chunk.clear();
+        progress.chunkCompleted(report);
+    }
+
+    private CsvImportReport.ChunkReport saveChunk(int chunkNumber, List<Chemicals> chunk) {
+        long start = System.currentTimeMillis();
+
+        // Keep the first row per name, repeats within the chunk are skipped like existing names
+        Map<String, Chemicals> chemicalsByName = new LinkedHashMap<>();
+        for (Chemicals chemical : chunk) {
+            chemicalsByName.putIfAbsent(chemical.getName(), chemical);
+        }
+        Set<String> existingNames = existingKeyLookup.existingChemicalNames(chemicalsByName.keySet());
+        List<Chemicals> newChemicals = chemicalsByName.values().stream()
+                .filter(chemical -> !existingNames.contains(chemical.getName()))
+                .collect(Collectors.toList());
+
+        CsvImportReport.ChunkReport.ChunkReportBuilder chunkReport = CsvImportReport.ChunkReport.builder()
+                .chunkNumber(chunkNumber)
+                .rowsParsed(chunk.size())
+                .rowsSkipped(chunk.size() - newChemicals.size());
+
+        try {
+            List<Long> savedIds = transactionTemplate.execute(status -> {
+                List<Long> ids = chemicalRepo.saveAll(newChemicals).stream()
+                        .map(Chemicals::getId)
+                        .collect(Collectors.toList());
+                // Detach the chunk so the persistence context does not grow with the file
+                entityManager.flush();
+                entityManager.clear();
+                return ids;
+            });
+            chunkReport.rowsSaved(savedIds.size());
+            assignQRCodes(savedIds);
+            if (!savedIds.isEmpty()) {
+                eventPublisher.publishEvent(new ChemicalsChangedEvent(savedIds));
+            }
+        } catch (Exception e) {
+            log.error("CSV: Chunk {} failed and was rolled back: {}", chunkNumber, e.getMessage());
+            chunkReport.error(e.getMessage());
+        }
+
+        CsvImportReport.ChunkReport result = chunkReport.durationMs(System.currentTimeMillis() - start).build();
+        log.info("CSV: Chunk {} committed - {} saved, {} skipped", chunkNumber, result.getRowsSaved(), result.getRowsSkipped());
+        return result;
+    }
+
+    /**
+     * Upsert on name: new names are inserted, existing rows are only written when their
+     * content hash differs. Changed rows are updated through the managed entities, so
+     * Hibernate sends them as JDBC batches and @PreUpdate refreshes the derived columns.
+     */
+    private CsvImportReport.ChunkReport upsertChunk(int chunkNumber, List<Chemicals> chunk) {
+        long start = System.currentTimeMillis();
+
+        // The last row per name wins, it is the latest edit in the file
+        Map<String, Chemicals> chemicalsByName = new LinkedHashMap<>();
+        for (Chemicals chemical : chunk) {
+            chemicalsByName.put(chemical.getName(), chemical);
+        }
+        Map<String, Object[]> existingByName = new HashMap<>();
+        for (Object[] existing : chemicalRepo.findContentHashesByNameIn(chemicalsByName.keySet())) {
+            existingByName.put((String) existing[0], existing);
+        }
+
+        List<Chemicals> newChemicals = new ArrayList<>();
+        Map<Long, Chemicals> changedById = new HashMap<>();
+        int unchanged = 0;
+        for (Chemicals chemical : chemicalsByName.values()) {
+            Object[] existing = existingByName.get(chemical.getName());
+            if (existing == null) {
+                newChemicals.add(chemical);
+            } else if (chemical.importedFieldsHash().equals(existing[2])) {
+                unchanged++;
+            } else {
+                changedById.put((Long) existing[1], chemical);
+            }
+        }
+
+        CsvImportReport.ChunkReport.ChunkReportBuilder chunkReport = CsvImportReport.ChunkReport.builder()
+                .chunkNumber(chunkNumber)
+                .rowsParsed(chunk.size())
+                .rowsUnchanged(unchanged)
+                .rowsSkipped(chunk.size() - chemicalsByName.size());
+
+        try {
+            List<Long> updatedIds = new ArrayList<>();
+            List<Long> savedIds = transactionTemplate.execute(status -> {
+                for (Chemicals target : chemicalRepo.findAllById(changedById.keySet())) {
+                    copyImportedFields(changedById.get(target.getId()), target);
+                    updatedIds.add(target.getId());
+                }
+                List<Long> ids = chemicalRepo.saveAll(newChemicals).stream()
+                        .map(Chemicals::getId)
+                        .collect(Collectors.toList());
+                // Detach the chunk so the persistence context does not grow with the file
+                entityManager.flush();
+                entityManager.clear();
+                return ids;
+            });
+            chunkReport.rowsSaved(savedIds.size()).rowsUpdated(updatedIds.size());
+            assignQRCodes(savedIds);
+            List<Long> changedIds = new ArrayList<>(savedIds);
+            changedIds.addAll(updatedIds);
+            if (!changedIds.isEmpty()) {
+                eventPublisher.publishEvent(new ChemicalsChangedEvent(changedIds));
+            }
+        } catch (Exception e) {
+            log.error("CSV: Upsert chunk {} failed and was rolled back: {}", chunkNumber, e.getMessage());
+            chunkReport.error(e.getMessage());
+        }
+
+        CsvImportReport.ChunkReport result = chunkReport.durationMs(System.currentTimeMillis() - start).build();
+        log.info("CSV: Chunk {} committed - {} saved, {} updated, {} unchanged", chunkNumber,
+                result.getRowsSaved(), result.getRowsUpdated(), result.getRowsUnchanged());
+        return result;
+    }
+
+    // The columns a CSV row carries; id, QR code and audit fields stay untouched
+    private static void copyImportedFields(Chemicals source, Chemicals target) {
+        target.setName(source.getName());
+        target.setCasNo(source.getCasNo());
+        target.setLotNo(source.getLotNo());
+        target.setProducer(source.getProducer());
+        target.setStorage(source.getStorage());
+        target.setToxicState(source.getToxicState());
+        target.setResponsible(source.getResponsible());
+        target.setOrderDate(source.getOrderDate());
+        target.setWeight(source.getWeight());
+    }
+
+    private void assignQRCodes(List<Long> chemicalIds) {
+        try {
+            qrCodeBatchGenerator.assignChemicalQRCodes(chemicalIds);
+        } catch (Exception e) {
+            // Rows are already saved, QR codes can still be generated later
+            log.warn("CSV: Failed to assign QR codes to imported chemicals: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void validateChunkedFile(MultipartFile file) {
+        validateFile(file, maxChunkedFileSize);
+    }
+
+    private void validateFile(MultipartFile file, long maxSize) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File is empty or null");
         }
@@ -80,121 +317,95 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
             throw new IllegalArgumentException("File must be a CSV file (.csv extension required)");
         }
 
-        if (file.getSize() > 10 * 1024 * 1024) { // 10MB limit
-            throw new IllegalArgumentException("File size exceeds 10MB limit");
+        if (file.getSize() > maxSize) {
+            throw new IllegalArgumentException("File size exceeds " + (maxSize / (1024 * 1024)) + "MB limit");
         }
     }
 
     private Set<Chemicals> parseCsvWithDelimiterDetection(MultipartFile file) throws IOException {
         Set<Chemicals> chemicals = new HashSet<>();
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), "UTF-8"))) {
-            String line;
-            boolean isFirstLine = true;
-            String[] headers = null;
-            char delimiter = ','; // Default to comma first
-            int lineNumber = 0;
-            int validRecords = 0;
-            int skippedRecords = 0;
-
-            while ((line = reader.readLine()) != null) {
-                lineNumber++;
-
-                // Remove BOM if present
-                if (lineNumber == 1 && line.startsWith("\ufeff")) {
-                    line = line.substring(1);
-                }
-
-                line = line.trim();
-
-                // Skip completely empty lines
-                if (line.isEmpty()) {
-                    log.debug("CSV: Skipping empty line {}", lineNumber);
-                    continue;
-                }
-
-                if (isFirstLine) {
-                    // Detect delimiter from first line
-                    delimiter = detectDelimiter(line);
-                    headers = parseCSVLine(line, delimiter);
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            parseCsvRecords(reader, chemicals::add);
+        }
 
-                    // Clean and normalize headers
-                    for (int i = 0; i < headers.length; i++) {
-                        headers[i] = normalizeHeader(headers[i]);
-                    }
+        return chemicals;
+    }
 
-                    isFirstLine = false;
-                    log.info("CSV: Headers detected: {}", Arrays.toString(headers));
-                    log.info("CSV: Using delimiter: '{}'", delimiter);
+    /**
+     * Parse the CSV record by record and hand every valid chemical to the consumer.
+     * Returns the number of rows that were skipped as invalid.
+     * Package-private like the helpers it calls so the JMH benchmarks (src/jmh/java) can drive it.
+     */
+    int parseCsvRecords(Reader reader, Consumer<Chemicals> consumer) throws IOException {
+        return parseCsvRecords(reader, consumer, rejected -> {
+        });
+    }
 
-                    // Validate required headers are present
-                    if (!hasRequiredHeaders(headers)) {
-                        throw new IllegalArgumentException("CSV file is missing required headers. Expected: name, storage (at minimum)");
-                    }
+    // Also tells onInvalidRows about rejected rows as they are found, see ParallelCsvParser.parse
+    int parseCsvRecords(Reader reader, Consumer<Chemicals> consumer, IntConsumer onInvalidRows) throws IOException {
+        Consumer<String> warnings = log::warn;
+        if (parallelCsvParser != null && parallelCsvParser.isEnabled()) {
+            int skippedRecords = parallelCsvParser.parse(reader, this::recordMapper, consumer, warnings, onInvalidRows);
+            log.info("CSV: Processing complete - {} skipped records", skippedRecords);
+            return skippedRecords;
+        }
 
-                    continue;
-                }
+        CsvTokenizer tokenizer = new CsvTokenizer(reader);
+        CsvRow row = new CsvRow();
+        int validRecords = 0;
+        int skippedRecords = 0;
 
-                if (headers == null) {
-                    continue;
-                }
+        if (!tokenizer.next(row)) {
+            log.warn("CSV: File contains no header line");
+            return 0;
+        }
+        ParallelCsvParser.RecordMapper<Chemicals> mapper = recordMapper(row.toArray(), tokenizer.getDelimiter());
 
-                try {
-                    // Parse CSV line with detected delimiter
-                    String[] values = parseCSVLine(line, delimiter);
-
-                    // Create chemical object from CSV row
-                    Chemicals chemical = createChemicalFromCSVRow(headers, values, lineNumber);
-                    if (chemical != null) {
-                        chemicals.add(chemical);
-                        validRecords++;
-                        log.debug("CSV: Successfully parsed chemical: {}", chemical.getName());
-                    } else {
-                        skippedRecords++;
-                    }
-                } catch (Exception e) {
-                    log.warn("CSV: Error processing line {}: {} - {}", lineNumber, line, e.getMessage());
-                    skippedRecords++;
-                }
+        while (tokenizer.next(row)) {
+            Chemicals chemical = mapper.map(row, warnings);
+            if (chemical != null) {
+                consumer.accept(chemical);
+                validRecords++;
+            } else {
+                skippedRecords++;
+                onInvalidRows.accept(1);
             }
-
-            log.info("CSV: Processing complete - {} valid records, {} skipped records", validRecords, skippedRecords);
         }
 
-        return chemicals;
+        log.info("CSV: Processing complete - {} valid records, {} skipped records", validRecords, skippedRecords);
+        return skippedRecords;
     }
 
-    private char detectDelimiter(String line) {
-        // Remove any carriage returns and newlines for analysis
-        line = line.replaceAll("[\\r\\n]", "");
-
-        int commaCount = 0;
-        int semicolonCount = 0;
-        boolean inQuotes = false;
-
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (!inQuotes) {
-                if (c == ',') {
-                    commaCount++;
-                } else if (c == ';') {
-                    semicolonCount++;
-                }
-            }
+    /**
+     * Validate the header line and return the mapper for the rows below it
+     */
+    ParallelCsvParser.RecordMapper<Chemicals> recordMapper(String[] rawHeaders, char delimiter) {
+        // Clean and normalize headers
+        String[] headers = new String[rawHeaders.length];
+        for (int i = 0; i < rawHeaders.length; i++) {
+            headers[i] = normalizeHeader(rawHeaders[i]);
         }
 
-        log.info("CSV: Delimiter detection - Commas: {}, Semicolons: {}", commaCount, semicolonCount);
+        log.info("CSV: Headers detected: {}", Arrays.toString(headers));
+        log.info("CSV: Using delimiter: '{}'", delimiter);
 
-        // Prefer semicolon if present (European format), otherwise comma
-        if (semicolonCount > 0) {
-            return ';';
-        } else {
-            return ',';
+        // Validate required headers are present
+        if (!hasRequiredHeaders(headers)) {
+            throw new IllegalArgumentException("CSV file is missing required headers. Expected: name, storage (at minimum)");
         }
+
+        return (row, warnings) -> {
+            try {
+                return createChemicalFromCSVRow(headers, row, warnings);
+            } catch (Exception e) {
+                warnings.accept("CSV: Error processing line " + row.getLineNumber() + ": " + row + " - " + e.getMessage());
+                return null;
+            }
+        };
     }
 
-    private String normalizeHeader(String header) {
+    String normalizeHeader(String header) {
         if (header == null) return "";
 
         return header.trim()
@@ -208,27 +419,24 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
         return headerSet.contains("name") && headerSet.contains("storage");
     }
 
-    private Chemicals createChemicalFromCSVRow(String[] headers, String[] values, int lineNumber) {
+    Chemicals createChemicalFromCSVRow(String[] headers, CsvRow row) {
+        return createChemicalFromCSVRow(headers, row, log::warn);
+    }
+
+    // Row problems go to warnings so the parallel parser can report them in file order
+    Chemicals createChemicalFromCSVRow(String[] headers, CsvRow row, Consumer<String> warnings) {
+        int lineNumber = row.getLineNumber();
         try {
             Chemicals.ChemicalsBuilder builder = Chemicals.builder();
 
-            // Ensure we have enough values, pad with empty strings if necessary
-            String[] paddedValues = new String[headers.length];
-            for (int i = 0; i < headers.length; i++) {
-                if (i < values.length) {
-                    paddedValues[i] = cleanValue(values[i]);
-                } else {
-                    paddedValues[i] = null;
-                }
-            }
-
             // Track which fields we've set
             boolean hasName = false;
             boolean hasStorage = false;
 
             for (int i = 0; i < headers.length; i++) {
                 String header = headers[i];
-                String value = paddedValues[i];
+                // Missing trailing columns read as null
+                String value = cleanValue(row, i);
 
                 // Map CSV column names with flexible matching
                 switch (header) {
@@ -258,7 +466,7 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
                     case "toxicstate":
                     case "toxic_state":
                         if (value != null) {
-                            Boolean toxicState = parseBooleanValue(value);
+                            Boolean toxicState = parseBooleanValue(value, warnings);
                             builder.toxicState(toxicState);
                         }
                         break;
@@ -268,7 +476,7 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
                     case "orderdate":
                     case "order_date":
                         if (value != null) {
-                            LocalDate orderDate = parseDate(value);
+                            LocalDate orderDate = parseDate(value, warnings);
                             if (orderDate != null) {
                                 builder.orderDate(orderDate);
                             }
@@ -284,12 +492,12 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
 
             // Validate required fields
             if (!hasName) {
-                log.warn("CSV line {}: Skipping row with missing or empty name", lineNumber);
+                warnings.accept("CSV line " + lineNumber + ": Skipping row with missing or empty name");
                 return null;
             }
 
             if (!hasStorage) {
-                log.warn("CSV line {}: Skipping row '{}' with missing or empty storage", lineNumber, paddedValues[0]);
+                warnings.accept("CSV line " + lineNumber + ": Skipping row '" + row.get(0) + "' with missing or empty storage");
                 return null;
             }
 
@@ -298,21 +506,20 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
             return chemical;
 
         } catch (Exception e) {
-            log.error("CSV line {}: Error creating chemical from row: {} - {}", lineNumber, Arrays.toString(values), e.getMessage());
+            warnings.accept("CSV line " + lineNumber + ": Error creating chemical from row: " + row + " - " + e.getMessage());
             return null;
         }
     }
 
-    private String cleanValue(String value) {
-        if (value == null) return null;
+    private String cleanValue(CsvRow row, int index) {
+        // Empty cells never become Strings
+        if (row.isEmpty(index)) return null;
 
-        // Remove carriage returns, newlines, and trim
-        value = value.replaceAll("[\\r\\n]", "").trim();
+        String value = row.get(index);
 
-        // Remove surrounding quotes if present
-        if (value.startsWith("\"") && value.endsWith("\"") && value.length() > 1) {
-            value = value.substring(1, value.length() - 1);
-            value = value.replace("\"\"", "\""); // Handle escaped quotes
+        // Line breaks inside quoted cells are not kept
+        if (value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+            value = value.replaceAll("[\\r\\n]", "").trim();
         }
 
         // Handle various empty value representations
@@ -328,10 +535,10 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
             return null;
         }
 
-        return value.trim();
+        return value;
     }
 
-    private Boolean parseBooleanValue(String value) {
+    private Boolean parseBooleanValue(String value, Consumer<String> warnings) {
         if (value == null || value.trim().isEmpty()) {
             return null;
         }
@@ -353,33 +560,12 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
             case "non-toxic":
                 return false;
             default:
-                log.warn("Unknown boolean value: {}, treating as null", value);
+                warnings.accept("Unknown boolean value: " + value + ", treating as null");
                 return null;
         }
     }
 
-    private String[] parseCSVLine(String line, char delimiter) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-                current.append(c);
-            } else if (c == delimiter && !inQuotes) {
-                result.add(current.toString().trim());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString().trim());
-
-        return result.toArray(new String[0]);
-    }
-
-    private LocalDate parseDate(String dateString) {
+    private LocalDate parseDate(String dateString, Consumer<String> warnings) {
         if (dateString == null || dateString.trim().isEmpty()) {
             return null;
         }
@@ -409,7 +595,7 @@ public class ChemicalsUploadCsvImpl implements ChemicalsUploadCsv {
             }
         }
 
-        log.warn("Unable to parse date: {}. Supported formats: dd.MM.yyyy, yyyy-MM-dd, MM/dd/yyyy, etc.", dateString);
+        warnings.accept("Unable to parse date: " + dateString + ". Supported formats: dd.MM.yyyy, yyyy-MM-dd, MM/dd/yyyy, etc.");
         return null; // Return null instead of throwing exception to allow row to be processed
     }
 }
\ No newline at end of file
@@ -0,0 +1,160 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.StudyListDTO;
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * Streams CSV exports straight from the database into a writer.
+ *
+ * Rows are read as DTO projections in keyset pages (id > last id, ordered by id), so
+ * entities and QR images are never loaded and only one page is held in memory. The
+ * writer is flushed after every page so the download starts with the first page.
+ */
+@Service
+@Slf4j
+public class CsvExportService {
+
+    public static final String CHEMICALS_HEADER = "name,CASNo,LotNo,producer,storage,toxicState,responsible,orderDate,weight";
+    public static final String STUDIES_HEADER = "studyCode;documentCodes;materialType;studyLevel;riskLevel;info;numberOfSamples;objectOfStudy;responsiblePerson;status";
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final ChemicalRepo chemicalRepo;
+    private final StudyListRepo studyListRepo;
+    private final int pageSize;
+
+    public CsvExportService(ChemicalRepo chemicalRepo,
+                            StudyListRepo studyListRepo,
+                            @Value("${app.csv.export.page-size:1000}") int pageSize) {
+        this.chemicalRepo = chemicalRepo;
+        this.studyListRepo = studyListRepo;
+        this.pageSize = pageSize > 0 ? pageSize : 1000;
+    }
+
+    /**
+     * Write all chemicals as comma separated CSV, every value quoted. Returns the number of rows.
+     */
+    public long writeChemicals(Writer writer) throws IOException {
+        writer.write(CHEMICALS_HEADER);
+        writer.write(LINE_SEPARATOR);
+
+        StringBuilder line = new StringBuilder(256);
+        long rows = 0;
+        long afterId = 0;
+        List<ChemicalDTO> page;
+
+        do {
+            page = chemicalRepo.findDtosAfterId(afterId, PageRequest.of(0, pageSize));
+            for (ChemicalDTO chemical : page) {
+                line.setLength(0);
+                appendQuoted(line, chemical.getName()).append(',');
+                appendQuoted(line, chemical.getCasNo()).append(',');
+                appendQuoted(line, chemical.getLotNo()).append(',');
+                appendQuoted(line, chemical.getProducer()).append(',');
+                appendQuoted(line, chemical.getStorage()).append(',');
+                appendQuoted(line, chemical.getToxicState() != null ? chemical.getToxicState().toString() : null).append(',');
+                appendQuoted(line, chemical.getResponsible()).append(',');
+                appendQuoted(line, chemical.getOrderDate() != null ? chemical.getOrderDate().toString() : null).append(',');
+                appendQuoted(line, chemical.getWeight());
+                line.append(LINE_SEPARATOR);
+                writer.append(line);
+            }
+
+            if (!page.isEmpty()) {
+                rows += page.size();
+                afterId = page.get(page.size() - 1).getId();
+                writer.flush();
+            }
+        } while (page.size() == pageSize);
+
+        writer.flush();
+        log.debug("CSV export: wrote {} chemicals in pages of {}", rows, pageSize);
+        return rows;
+    }
+
+    /**
+     * Write all studies as semicolon separated CSV for European Excel. Returns the number of rows.
+     */
+    public long writeStudies(Writer writer) throws IOException {
+        writer.write(STUDIES_HEADER);
+        writer.write(LINE_SEPARATOR);
+
+        StringBuilder line = new StringBuilder(256);
+        long rows = 0;
+        long afterId = 0;
+        List<StudyListDTO> page;
+
+        do {
+            page = studyListRepo.findDtosAfterId(afterId, PageRequest.of(0, pageSize));
+            for (StudyListDTO study : page) {
+                line.setLength(0);
+                appendField(line, study.getStudyCode(), ';').append(';');
+                appendField(line, study.getDocumentCodes(), ';').append(';');
+                appendField(line, study.getMaterialType(), ';').append(';');
+                appendField(line, study.getStudyLevel(), ';').append(';');
+                appendField(line, study.getRiskLevel(), ';').append(';');
+                appendField(line, study.getInfo(), ';').append(';');
+                appendField(line, study.getNumberOfSamples(), ';').append(';');
+                appendField(line, study.getObjectOfStudy(), ';').append(';');
+                appendField(line, study.getResponsiblePerson(), ';').append(';');
+                appendField(line, study.getStatus(), ';');
+                line.append(LINE_SEPARATOR);
+                writer.append(line);
+            }
+
+            if (!page.isEmpty()) {
+                rows += page.size();
+                afterId = page.get(page.size() - 1).getId();
+                writer.flush();
+            }
+        } while (page.size() == pageSize);
+
+        writer.flush();
+        log.debug("CSV export: wrote {} studies in pages of {}", rows, pageSize);
+        return rows;
+    }
+
+    private static StringBuilder appendQuoted(StringBuilder line, String value) {
+        line.append('"');
+        appendEscaped(line, value);
+        return line.append('"');
+    }
+
+    /**
+     * Values are written as is unless they contain the delimiter, a quote or a line break
+     */
+    private static StringBuilder appendField(StringBuilder line, String value, char delimiter) {
+        if (value == null) {
+            return line;
+        }
+        boolean needsQuotes = value.indexOf(delimiter) >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!needsQuotes) {
+            return line.append(value);
+        }
+        return appendQuoted(line, value);
+    }
+
+    private static void appendEscaped(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.hande.chemical_database.services;
+
+/**
+ * Finds where CSV records end without building them, so a file can be cut into slices
+ * that each start on a record boundary and can be tokenized independently.
+ *
+ * Follows the same quoting rules as {@link CsvTokenizer}: a quote only opens a field
+ * while the field holds nothing but whitespace, "" inside quotes is an escaped quote and
+ * line breaks inside quotes belong to the record. Line numbers are counted the same way
+ * (CRLF once, lone CR and LF once each) so slices report the same lines as a full scan.
+ */
+final class CsvRecordScanner {
+
+    private final char delimiter;
+    private int lines;
+
+    CsvRecordScanner(char delimiter) {
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * Index just after the record starting at from, or -1 if chars[from, to) does not
+     * hold a complete record yet. At the end of input the last record may end without a
+     * line break.
+     */
+    int recordEnd(char[] chars, int from, int to, boolean endOfInput) {
+        lines = 0;
+        if (from >= to) {
+            return -1;
+        }
+
+        boolean inQuotes = false;
+        boolean fieldHasText = false;
+        int i = from;
+        while (i < to) {
+            char c = chars[i++];
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if (i < to) {
+                        if (chars[i] == '"') {
+                            // Escaped quote
+                            i++;
+                            fieldHasText = true;
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else if (!endOfInput) {
+                        return -1; // the next char decides whether this quote is escaped
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lines++;
+                    }
+                    if (c > ' ') {
+                        fieldHasText = true;
+                    }
+                }
+            } else if (c == delimiter) {
+                fieldHasText = false;
+            } else if (c == '\n') {
+                lines++;
+                return i;
+            } else if (c == '\r') {
+                if (i < to) {
+                    if (chars[i] == '\n') {
+                        i++;
+                    }
+                } else if (!endOfInput) {
+                    return -1; // may be the first half of a CRLF
+                }
+                lines++;
+                return i;
+            } else if (c == '"' && !fieldHasText) {
+                inQuotes = true;
+            } else if (c > ' ') {
+                fieldHasText = true;
+            }
+        }
+
+        return endOfInput ? to : -1;
+    }
+
+    /**
+     * Line breaks consumed by the last record found by {@link #recordEnd}
+     */
+    int lines() {
+        return lines;
+    }
+}
@@ -0,0 +1,139 @@
+package com.hande.chemical_database.services;
+
+import java.util.Arrays;
+
+/**
+ * One CSV record filled by {@link CsvTokenizer}. Field values are slices of a single
+ * char buffer that is reused for every row, so reading a row allocates nothing;
+ * Strings are only created for the fields a caller asks for via {@link #get(int)}.
+ *
+ * Fields are unquoted and trimmed. A row instance must not be kept after the next
+ * call to {@link CsvTokenizer#next(CsvRow)}.
+ */
+public final class CsvRow {
+
+    private char[] chars = new char[512];
+    private int length;
+
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private int size;
+
+    private int fieldStart;
+    private int lineNumber;
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Physical line (1-based) on which this record starts
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    public int length(int index) {
+        return index < size ? ends[index] - starts[index] : 0;
+    }
+
+    public boolean isEmpty(int index) {
+        return length(index) == 0;
+    }
+
+    /**
+     * Field value, or null if the row has fewer fields
+     */
+    public String get(int index) {
+        if (index >= size) {
+            return null;
+        }
+        return new String(chars, starts[index], ends[index] - starts[index]);
+    }
+
+    public boolean equalsIgnoreCase(int index, String value) {
+        int fieldLength = length(index);
+        if (index >= size || fieldLength != value.length()) {
+            return false;
+        }
+        int offset = starts[index];
+        for (int i = 0; i < fieldLength; i++) {
+            char a = chars[offset + i];
+            char b = value.charAt(i);
+            if (a != b && Character.toLowerCase(a) != Character.toLowerCase(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String[] toArray() {
+        String[] values = new String[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = get(i);
+        }
+        return values;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    // Filled by CsvTokenizer
+
+    void reset(int lineNumber) {
+        this.length = 0;
+        this.size = 0;
+        this.fieldStart = 0;
+        this.lineNumber = lineNumber;
+    }
+
+    void append(char c) {
+        if (length == chars.length) {
+            chars = Arrays.copyOf(chars, chars.length * 2);
+        }
+        chars[length++] = c;
+    }
+
+    /**
+     * True while the current field holds nothing but whitespace, i.e. a quote may still open it
+     */
+    boolean isFieldBlank() {
+        for (int i = fieldStart; i < length; i++) {
+            if (chars[i] > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void discardField() {
+        length = fieldStart;
+    }
+
+    void endField() {
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+
+        int start = fieldStart;
+        int end = length;
+        while (start < end && chars[start] <= ' ') {
+            start++;
+        }
+        while (end > start && chars[end - 1] <= ' ') {
+            end--;
+        }
+
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+        fieldStart = length;
+    }
+
+    boolean isBlank() {
+        return size == 0 || (size == 1 && ends[0] == starts[0]);
+    }
+}
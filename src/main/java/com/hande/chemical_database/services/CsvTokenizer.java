@@ -0,0 +1,175 @@
+package com.hande.chemical_database.services;
+
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Streaming CSV tokenizer shared by the chemical and study importers.
+ *
+ * Reads through a fixed char buffer straight from the Reader (no readLine, no per-line
+ * Strings) and writes each record into a reusable {@link CsvRow}. Supports quoted fields,
+ * escaped quotes (""), line breaks inside quoted fields, CRLF/LF/CR line endings and a
+ * leading UTF-8 BOM. Blank lines are skipped.
+ *
+ * The delimiter is detected from the header line unless given: ';' if it occurs outside
+ * quotes (European Excel exports), otherwise ',' and then tab.
+ */
+public final class CsvTokenizer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    static final char BOM = '\uFEFF';
+
+    private final Reader reader;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+
+    private final char delimiter;
+    private int lineNumber;
+
+    public CsvTokenizer(Reader reader) throws IOException {
+        this(reader, (char) 0);
+    }
+
+    public CsvTokenizer(Reader reader, char delimiter) throws IOException {
+        this(reader, delimiter, 1, true);
+    }
+
+    /**
+     * Tokenizer for a slice of a file that starts on a record boundary (see
+     * {@link CsvRecordScanner}); line numbers continue from firstLineNumber
+     */
+    CsvTokenizer(Reader reader, char delimiter, int firstLineNumber) throws IOException {
+        this(reader, delimiter, firstLineNumber, false);
+    }
+
+    private CsvTokenizer(Reader reader, char delimiter, int firstLineNumber, boolean startOfFile) throws IOException {
+        this.reader = reader;
+        this.lineNumber = firstLineNumber;
+        fill();
+        if (startOfFile && position < limit && buffer[position] == BOM) {
+            position++;
+        }
+        this.delimiter = delimiter != 0 ? delimiter : detectDelimiter(buffer, position, limit);
+    }
+
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * Read the next non-blank record into the row. Returns false at the end of input.
+     */
+    public boolean next(CsvRow row) throws IOException {
+        do {
+            if (!readRecord(row)) {
+                return false;
+            }
+        } while (row.isBlank());
+        return true;
+    }
+
+    /**
+     * Pick the delimiter from the first line in chars[from, to), quoted text is ignored
+     */
+    static char detectDelimiter(char[] chars, int from, int to) {
+        int semicolons = 0;
+        int commas = 0;
+        int tabs = 0;
+        boolean inQuotes = false;
+
+        for (int i = from; i < to; i++) {
+            char c = chars[i];
+            if (c == '"') {
+                inQuotes = !inQuotes;
+            } else if (!inQuotes) {
+                if (c == '\n' || c == '\r') {
+                    break;
+                } else if (c == ';') {
+                    semicolons++;
+                } else if (c == ',') {
+                    commas++;
+                } else if (c == '\t') {
+                    tabs++;
+                }
+            }
+        }
+
+        if (semicolons > 0) return ';';
+        if (commas > 0) return ',';
+        if (tabs > 0) return '\t';
+        return ',';
+    }
+
+    private boolean readRecord(CsvRow row) throws IOException {
+        if (position >= limit && !fill()) {
+            return false;
+        }
+
+        row.reset(lineNumber);
+        boolean inQuotes = false;
+
+        while (position < limit || fill()) {
+            char c = buffer[position++];
+
+            if (inQuotes) {
+                if (c == '"') {
+                    if ((position < limit || fill()) && buffer[position] == '"') {
+                        // Escaped quote
+                        row.append('"');
+                        position++;
+                    } else {
+                        inQuotes = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    row.append(c);
+                }
+            } else if (c == delimiter) {
+                row.endField();
+            } else if (c == '\n') {
+                lineNumber++;
+                row.endField();
+                return true;
+            } else if (c == '\r') {
+                if ((position < limit || fill()) && buffer[position] == '\n') {
+                    position++;
+                }
+                lineNumber++;
+                row.endField();
+                return true;
+            } else if (c == '"' && row.isFieldBlank()) {
+                // Opening quote, leading whitespace is not part of the value
+                row.discardField();
+                inQuotes = true;
+            } else {
+                row.append(c);
+            }
+        }
+
+        // Last record without a trailing line break (or an unterminated quote)
+        row.endField();
+        return true;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        int read = reader.read(buffer, 0, buffer.length);
+        while (read == 0) {
+            read = reader.read(buffer, 0, buffer.length);
+        }
+        if (read < 0) {
+            endOfInput = true;
+            position = limit = 0;
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,61 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import com.hande.chemical_database.utils.StudyCodes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Duplicate check for CSV imports: finds which of the incoming keys already exist by
+ * probing only those keys with indexed IN lookups (unique index on chemicals.name,
+ * study_list.study_code_key). The cost follows the number of rows imported, not the
+ * size of the table.
+ */
+@Service
+@RequiredArgsConstructor
+public class ExistingKeyLookup {
+
+    // Keeps the IN list and its bind parameters at a size every database plans well
+    static final int MAX_KEYS_PER_QUERY = 1000;
+
+    private final ChemicalRepo chemicalRepo;
+    private final StudyListRepo studyListRepo;
+
+    /**
+     * The given names that already belong to a chemical
+     */
+    public Set<String> existingChemicalNames(Collection<String> names) {
+        return probe(names, chemicalRepo::findExistingNames);
+    }
+
+    /**
+     * The given study code keys ({@link StudyCodes#key}) that already belong to a study
+     */
+    public Set<String> existingStudyCodeKeys(Collection<String> studyCodeKeys) {
+        return probe(studyCodeKeys, studyListRepo::findExistingStudyCodeKeys);
+    }
+
+    private static Set<String> probe(Collection<String> keys, Function<Collection<String>, List<String>> query) {
+        Set<String> existing = new HashSet<>();
+        List<String> batch = new ArrayList<>(Math.min(keys.size(), MAX_KEYS_PER_QUERY));
+        for (String key : keys) {
+            batch.add(key);
+            if (batch.size() == MAX_KEYS_PER_QUERY) {
+                existing.addAll(query.apply(batch));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            existing.addAll(query.apply(batch));
+        }
+        return existing;
+    }
+}
@@ -0,0 +1,318 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.enums.ImportJobState;
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.models.CsvImportReport;
+import com.hande.chemical_database.models.ImportJobStatus;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Runs chunked CSV imports in the background so the upload request returns right away.
+ *
+ * The upload is copied to a temp file (the multipart file is gone once the request ends)
+ * and imported on a small fixed pool, so only a few imports write to the database at the
+ * same time. Further jobs wait in a bounded queue; when that is full submit() is rejected.
+ * Cancelling stops a running job before its next chunk is committed, chunks already
+ * committed are kept. Finished jobs are forgotten after the retention period.
+ */
+@Service
+@Slf4j
+public class ImportJobService {
+
+    public static final String CHEMICALS = "chemicals";
+    public static final String STUDIES = "studies";
+
+    private final ChemicalsUploadCsv chemicalsUploadCsv;
+    private final StudyListUploadCsv studyListUploadCsv;
+    private final ThreadPoolExecutor importPool;
+    private final Duration retention;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(ChemicalsUploadCsv chemicalsUploadCsv,
+                            StudyListUploadCsv studyListUploadCsv,
+                            @Value("${app.import.max-concurrent:2}") int maxConcurrent,
+                            @Value("${app.import.queue-capacity:10}") int queueCapacity,
+                            @Value("${app.import.job-retention-minutes:60}") long retentionMinutes) {
+        this.chemicalsUploadCsv = chemicalsUploadCsv;
+        this.studyListUploadCsv = studyListUploadCsv;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        int threads = Math.max(1, maxConcurrent);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.importPool = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+            Thread thread = new Thread(runnable, "csv-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file is not an acceptable CSV upload
+     * @throws RejectedExecutionException if the import queue is full
+     */
+    public ImportJobStatus submitChemicalImport(MultipartFile file, Integer chunkSize, ImportMode mode) {
+        chemicalsUploadCsv.validateChunkedFile(file);
+        return submit(CHEMICALS, file, chunkSize, mode, chemicalsUploadCsv::importChemicalsInChunks);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the file is not an acceptable CSV upload
+     * @throws RejectedExecutionException if the import queue is full
+     */
+    public ImportJobStatus submitStudyImport(MultipartFile file, Integer chunkSize, ImportMode mode) {
+        studyListUploadCsv.validateChunkedFile(file);
+        return submit(STUDIES, file, chunkSize, mode, studyListUploadCsv::importStudyListsInChunks);
+    }
+
+    public Optional<ImportJobStatus> getStatus(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::toStatus);
+    }
+
+    /**
+     * Most recent first
+     */
+    public List<ImportJobStatus> listJobs() {
+        pruneFinishedJobs();
+        return jobs.values().stream()
+                .map(ImportJob::toStatus)
+                .sorted(Comparator.comparing(ImportJobStatus::getSubmittedAt).reversed())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * A queued job is cancelled immediately, a running one before its next chunk.
+     * Cancelling a finished job has no effect.
+     */
+    public Optional<ImportJobStatus> cancel(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.cancel()) {
+            // Never started, drop it from the queue and free the temp file
+            importPool.remove(job.task);
+            deleteQuietly(job.file);
+            log.info("Import job {} cancelled before it started", jobId);
+        }
+        return Optional.of(job.toStatus());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importPool.shutdownNow();
+    }
+
+    private ImportJobStatus submit(String type, MultipartFile file, Integer chunkSize, ImportMode mode,
+                                   ChunkedImporter importer) {
+        pruneFinishedJobs();
+
+        Path tempFile;
+        try {
+            tempFile = Files.createTempFile("csv-import-", ".csv");
+        } catch (IOException e) {
+            throw new RuntimeException("Could not store uploaded file: " + e.getMessage(), e);
+        }
+        try {
+            file.transferTo(tempFile);
+        } catch (IOException e) {
+            deleteQuietly(tempFile);
+            throw new RuntimeException("Could not store uploaded file: " + e.getMessage(), e);
+        }
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), type, file.getOriginalFilename(), tempFile,
+                mode != null ? mode : ImportMode.INSERT);
+        job.task = () -> run(job, chunkSize, importer);
+        jobs.put(job.id, job);
+        try {
+            importPool.execute(job.task);
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            deleteQuietly(tempFile);
+            throw new RejectedExecutionException("Too many imports in progress, try again later");
+        }
+
+        log.info("Import job {} queued: {} from {}", job.id, type, job.filename);
+        return job.toStatus();
+    }
+
+    private void run(ImportJob job, Integer chunkSize, ChunkedImporter importer) {
+        try {
+            if (!job.start()) {
+                return;
+            }
+            log.info("Import job {} started", job.id);
+            try (InputStream input = Files.newInputStream(job.file)) {
+                CsvImportReport report = importer.importInChunks(job.filename, input, chunkSize, job.mode, job);
+                job.finish(report);
+                log.info("Import job {} {}", job.id, report.isCancelled() ? "cancelled" : "completed");
+            }
+        } catch (Exception e) {
+            log.error("Import job {} failed", job.id, e);
+            job.fail(e.getMessage());
+        } finally {
+            deleteQuietly(job.file);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinishedBefore(cutoff));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete temp import file {}: {}", file, e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ChunkedImporter {
+        CsvImportReport importInChunks(String filename, InputStream input, Integer chunkSize, ImportMode mode,
+                                       ImportProgress progress);
+    }
+
+    /**
+     * Mutable job state; written by the import thread, read by status requests
+     */
+    private static class ImportJob implements ImportProgress {
+
+        private final String id;
+        private final String type;
+        private final String filename;
+        private final Path file;
+        private final ImportMode mode;
+        private final LocalDateTime submittedAt = LocalDateTime.now();
+        private Runnable task;
+
+        private ImportJobState state = ImportJobState.QUEUED;
+        private volatile boolean cancelRequested;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String error;
+        private int chunksCompleted;
+        private int rowsParsed;
+        private int rowsSaved;
+        private int rowsUpdated;
+        private int rowsUnchanged;
+        private int rowsSkipped;
+        private int rowsInvalid;
+        private int rowsFailed;
+        private CsvImportReport report;
+
+        ImportJob(String id, String type, String filename, Path file, ImportMode mode) {
+            this.id = id;
+            this.type = type;
+            this.filename = filename;
+            this.file = file;
+            this.mode = mode;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelRequested;
+        }
+
+        @Override
+        public synchronized void chunkCompleted(CsvImportReport progress) {
+            chunksCompleted = progress.getChunks().size();
+            rowsParsed = progress.getRowsParsed();
+            rowsSaved = progress.getRowsSaved();
+            rowsUpdated = progress.getRowsUpdated();
+            rowsUnchanged = progress.getRowsUnchanged();
+            rowsSkipped = progress.getRowsSkipped();
+            rowsInvalid = progress.getRowsInvalid();
+            rowsFailed = progress.getRowsFailed();
+        }
+
+        // Returns false if the job was cancelled while queued
+        synchronized boolean start() {
+            if (state != ImportJobState.QUEUED) {
+                return false;
+            }
+            state = ImportJobState.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        // Returns true if the job was still queued and is now cancelled
+        synchronized boolean cancel() {
+            if (state.isFinished()) {
+                return false;
+            }
+            cancelRequested = true;
+            if (state == ImportJobState.QUEUED) {
+                state = ImportJobState.CANCELLED;
+                finishedAt = LocalDateTime.now();
+                return true;
+            }
+            return false;
+        }
+
+        synchronized void finish(CsvImportReport finalReport) {
+            chunkCompleted(finalReport);
+            report = finalReport;
+            state = finalReport.isCancelled() ? ImportJobState.CANCELLED : ImportJobState.COMPLETED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized void fail(String message) {
+            error = message;
+            state = ImportJobState.FAILED;
+            finishedAt = LocalDateTime.now();
+        }
+
+        synchronized boolean isFinishedBefore(LocalDateTime cutoff) {
+            return state.isFinished() && finishedAt.isBefore(cutoff);
+        }
+
+        synchronized ImportJobStatus toStatus() {
+            return ImportJobStatus.builder()
+                    .jobId(id)
+                    .type(type)
+                    .filename(filename)
+                    .mode(mode)
+                    .state(state)
+                    .cancelRequested(cancelRequested)
+                    .chunksCompleted(chunksCompleted)
+                    .rowsParsed(rowsParsed)
+                    .rowsSaved(rowsSaved)
+                    .rowsUpdated(rowsUpdated)
+                    .rowsUnchanged(rowsUnchanged)
+                    .rowsSkipped(rowsSkipped)
+                    .rowsInvalid(rowsInvalid)
+                    .rowsFailed(rowsFailed)
+                    .submittedAt(submittedAt)
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .error(error)
+                    .report(report)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.models.CsvImportReport;
+
+/**
+ * Callbacks for a chunked CSV import. The importer asks isCancelled() before committing
+ * each chunk and reports the running totals after it.
+ */
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+    };
+
+    default boolean isCancelled() {
+        return false;
+    }
+
+    default void chunkCompleted(CsvImportReport report) {
+    }
+}
@@ -0,0 +1,58 @@
+package com.hande.chemical_database.services;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a (sort key, id) ordered listing, exchanged with clients as an opaque
+ * URL-safe token. The id breaks ties so rows with equal keys are never skipped.
+ */
+@Getter
+@RequiredArgsConstructor
+public class KeysetCursor {
+
+    private final String key;
+    private final Long id;
+
+    public String encode() {
+        String raw = id + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Parse a token produced by {@link #encode()}
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new KeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor: " + token, e);
+        }
+    }
+
+    /**
+     * Lower-case "contains" LIKE pattern for the optional filter of keyset listings,
+     * escaped with '!', or null when there is no filter
+     */
+    public static String containsPattern(String filter) {
+        if (filter == null || filter.trim().isEmpty()) {
+            return null;
+        }
+        String escaped = filter.trim().toLowerCase()
+                .replace("!", "!!")
+                .replace("%", "!%")
+                .replace("_", "!_");
+        return "%" + escaped + "%";
+    }
+}
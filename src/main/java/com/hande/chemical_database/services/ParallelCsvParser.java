@@ -0,0 +1,287 @@
+package com.hande.chemical_database.services;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.CharArrayReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+
+/**
+ * Parses a CSV file on all cores while keeping the results in file order.
+ *
+ * The input is read in blocks of segment-chars x threads. {@link CsvRecordScanner} cuts
+ * each block into segments that start on a record boundary (quoted line breaks are never
+ * split), then every segment is tokenized and mapped to entities on a fork-join pool.
+ * Entities and row warnings are handed back on the calling thread segment by segment, so
+ * the consumer sees the same sequence as a single-threaded parse and warnings are logged
+ * in file order. A block is fully mapped before the next one is read, memory stays
+ * bounded by the block size. Input that fits in one segment is parsed on the caller
+ * thread.
+ */
+@Service
+public class ParallelCsvParser {
+
+    /**
+     * Maps one record; called concurrently for different segments
+     */
+    @FunctionalInterface
+    public interface RecordMapper<T> {
+        /**
+         * The entity for the row, or null if the row is invalid. Problems are reported
+         * through warnings, not logged directly, so they can be replayed in file order.
+         */
+        T map(CsvRow row, Consumer<String> warnings);
+    }
+
+    /**
+     * Called once on the caller thread with the raw header fields
+     */
+    @FunctionalInterface
+    public interface HeaderHandler<T> {
+        RecordMapper<T> onHeader(String[] headers, char delimiter);
+    }
+
+    private final boolean enabled;
+    private final int segmentChars;
+    private final int threads;
+    private final ForkJoinPool pool;
+
+    public ParallelCsvParser(@Value("${app.csv.parse.parallel:true}") boolean enabled,
+                             @Value("${app.csv.parse.threads:0}") int threads,
+                             @Value("${app.csv.parse.segment-chars:1048576}") int segmentChars) {
+        this.enabled = enabled;
+        this.segmentChars = Math.max(1024, segmentChars);
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(this.threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("csv-parse-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Parse the whole input, handing every mapped entity to the consumer in file order.
+     * Returns the number of rows the mapper rejected; returns 0 if there is no header line.
+     */
+    public <T> int parse(Reader reader, HeaderHandler<T> headerHandler, Consumer<T> consumer,
+                         Consumer<String> warnings) throws IOException {
+        return parse(reader, headerHandler, consumer, warnings, rejected -> {
+        });
+    }
+
+    /**
+     * Like parse(reader, headerHandler, consumer, warnings), and also tells invalidRows on
+     * the caller thread how many rows each segment rejected, before that segment's entities
+     * reach the consumer, so callers can report a running count.
+     */
+    public <T> int parse(Reader reader, HeaderHandler<T> headerHandler, Consumer<T> consumer,
+                         Consumer<String> warnings, IntConsumer invalidRows) throws IOException {
+        Block block = new Block(reader, segmentChars * threads);
+        if (block.length > 0 && block.chars[0] == CsvTokenizer.BOM) {
+            block.start = 1;
+        }
+        char delimiter = CsvTokenizer.detectDelimiter(block.chars, block.start, block.length);
+        CsvRecordScanner scanner = new CsvRecordScanner(delimiter);
+        int lineNumber = 1;
+
+        // First non-blank record is the header
+        String[] headers = null;
+        CsvRow row = new CsvRow();
+        while (headers == null) {
+            int end = scanner.recordEnd(block.chars, block.start, block.length, block.endOfInput);
+            if (end < 0) {
+                if (!block.readMore()) {
+                    return 0;
+                }
+                continue;
+            }
+            CsvTokenizer tokenizer = new CsvTokenizer(
+                    new CharArrayReader(block.chars, block.start, end - block.start), delimiter, lineNumber);
+            if (tokenizer.next(row)) {
+                headers = row.toArray();
+            }
+            lineNumber += scanner.lines();
+            block.start = end;
+        }
+        RecordMapper<T> mapper = headerHandler.onHeader(headers, delimiter);
+
+        int rejectedRows = 0;
+        while (true) {
+            // Cut the complete records of the block into segments of about segmentChars
+            List<Segment> segments = new ArrayList<>();
+            int segmentStart = block.start;
+            int segmentLine = lineNumber;
+            int position = block.start;
+            int end;
+            while ((end = scanner.recordEnd(block.chars, position, block.length, block.endOfInput)) >= 0) {
+                position = end;
+                lineNumber += scanner.lines();
+                if (position - segmentStart >= segmentChars) {
+                    segments.add(new Segment(segmentStart, position, segmentLine));
+                    segmentStart = position;
+                    segmentLine = lineNumber;
+                }
+            }
+            if (position > segmentStart) {
+                segments.add(new Segment(segmentStart, position, segmentLine));
+            }
+            block.start = position;
+
+            for (SegmentResult<T> result : mapSegments(block.chars, segments, delimiter, mapper)) {
+                result.warnings.forEach(warnings);
+                if (result.invalidRows > 0) {
+                    invalidRows.accept(result.invalidRows);
+                    rejectedRows += result.invalidRows;
+                }
+                result.items.forEach(consumer);
+            }
+
+            if (!block.readMore()) {
+                return rejectedRows;
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private <T> List<SegmentResult<T>> mapSegments(char[] chars, List<Segment> segments, char delimiter,
+                                                   RecordMapper<T> mapper) throws IOException {
+        if (segments.size() <= 1) {
+            List<SegmentResult<T>> results = new ArrayList<>(1);
+            for (Segment segment : segments) {
+                results.add(mapSegment(chars, segment, delimiter, mapper));
+            }
+            return results;
+        }
+
+        List<Callable<SegmentResult<T>>> tasks = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            tasks.add(() -> mapSegment(chars, segment, delimiter, mapper));
+        }
+
+        List<SegmentResult<T>> results = new ArrayList<>(segments.size());
+        try {
+            for (Future<SegmentResult<T>> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while parsing CSV");
+        } catch (ExecutionException e) {
+            // Rethrow the first failure in file order as the sequential parse would
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Error parsing CSV segment: " + cause.getMessage(), cause);
+        }
+        return results;
+    }
+
+    private static <T> SegmentResult<T> mapSegment(char[] chars, Segment segment, char delimiter,
+                                                   RecordMapper<T> mapper) throws IOException {
+        SegmentResult<T> result = new SegmentResult<>();
+        Consumer<String> warnings = result.warnings::add;
+        CsvTokenizer tokenizer = new CsvTokenizer(
+                new CharArrayReader(chars, segment.start, segment.end - segment.start), delimiter, segment.firstLine);
+        CsvRow row = new CsvRow();
+        while (tokenizer.next(row)) {
+            T item = mapper.map(row, warnings);
+            if (item != null) {
+                result.items.add(item);
+            } else {
+                result.invalidRows++;
+            }
+        }
+        return result;
+    }
+
+    private static final class Segment {
+        private final int start;
+        private final int end;
+        private final int firstLine;
+
+        Segment(int start, int end, int firstLine) {
+            this.start = start;
+            this.end = end;
+            this.firstLine = firstLine;
+        }
+    }
+
+    private static final class SegmentResult<T> {
+        private final List<T> items = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private int invalidRows;
+    }
+
+    /**
+     * Input window; chars before start are consumed, chars from start to length are not
+     */
+    private static final class Block {
+
+        private final Reader reader;
+        private char[] chars;
+        private int start;
+        private int length;
+        private boolean endOfInput;
+
+        Block(Reader reader, int capacity) throws IOException {
+            this.reader = reader;
+            this.chars = new char[capacity];
+            fill();
+        }
+
+        /**
+         * Keep the unconsumed tail and read after it, growing the window when a single
+         * record does not fit. Returns false once everything has been consumed.
+         */
+        boolean readMore() throws IOException {
+            if (endOfInput) {
+                return start < length;
+            }
+            if (start == 0 && length == chars.length) {
+                chars = Arrays.copyOf(chars, chars.length * 2);
+            } else {
+                System.arraycopy(chars, start, chars, 0, length - start);
+                length -= start;
+                start = 0;
+            }
+            fill();
+            return true;
+        }
+
+        private void fill() throws IOException {
+            while (length < chars.length) {
+                int read = reader.read(chars, length, chars.length - length);
+                if (read < 0) {
+                    endOfInput = true;
+                    return;
+                }
+                length += read;
+            }
+        }
+    }
+}
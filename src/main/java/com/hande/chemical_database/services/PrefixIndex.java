@@ -0,0 +1,77 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.models.Suggestion;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Sorted, case-insensitive index of one field's values for prefix lookups. Keys are
+ * "lower-cased value \0 id", so a prefix query is a range scan of the skip list that
+ * stops after the requested number of matches, and equal values stay distinct per row.
+ *
+ * Reads are lock-free; writes for the same id are serialized so the key of an id is
+ * always the one in the map.
+ */
+public class PrefixIndex {
+
+    private static final char SEPARATOR = '\u0000';
+
+    private final String field;
+    private final ConcurrentSkipListMap<String, Suggestion> entries = new ConcurrentSkipListMap<>();
+    private final Map<Long, String> keysById = new ConcurrentHashMap<>();
+
+    public PrefixIndex(String field) {
+        this.field = field;
+    }
+
+    public int size() {
+        return keysById.size();
+    }
+
+    public synchronized void put(long id, String value) {
+        remove(id);
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String key = normalize(value) + SEPARATOR + id;
+        entries.put(key, new Suggestion(id, value, field));
+        keysById.put(id, key);
+    }
+
+    public synchronized void remove(long id) {
+        String key = keysById.remove(id);
+        if (key != null) {
+            entries.remove(key);
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        keysById.clear();
+    }
+
+    /**
+     * Up to limit values starting with the prefix, ignoring case, in alphabetical order
+     * (exact matches first)
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, 16));
+        String normalized = normalize(prefix);
+        for (Map.Entry<String, Suggestion> entry : entries.tailMap(normalized).entrySet()) {
+            if (result.size() >= limit || !entry.getKey().startsWith(normalized)) {
+                break;
+            }
+            result.add(entry.getValue());
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
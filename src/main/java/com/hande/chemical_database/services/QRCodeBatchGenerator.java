@@ -0,0 +1,189 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Assigns QR codes to many rows at once, e.g. right after a CSV import.
+ *
+ * Rows are processed in chunks: PNGs of a chunk are encoded in parallel on a bounded
+ * executor (only in persist mode, render mode needs no image), then the qr_code columns
+ * and images are written with JDBC batch statements in one transaction per chunk.
+ */
+@Service
+@Slf4j
+public class QRCodeBatchGenerator {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ChemicalRepo chemicalRepo;
+    private final StudyListRepo studyListRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final QRCodeImageStore qrCodeImageStore;
+    private final QRCodeService qrCodeService;
+    private final StudyListQRCodeService studyListQRCodeService;
+    private final ExecutorService encoderPool;
+
+    public QRCodeBatchGenerator(JdbcTemplate jdbcTemplate,
+                                ChemicalRepo chemicalRepo,
+                                StudyListRepo studyListRepo,
+                                TransactionTemplate transactionTemplate,
+                                QRCodeImageStore qrCodeImageStore,
+                                QRCodeService qrCodeService,
+                                StudyListQRCodeService studyListQRCodeService,
+                                @Value("${app.qr.batch-threads:0}") int batchThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chemicalRepo = chemicalRepo;
+        this.studyListRepo = studyListRepo;
+        this.transactionTemplate = transactionTemplate;
+        this.qrCodeImageStore = qrCodeImageStore;
+        this.qrCodeService = qrCodeService;
+        this.studyListQRCodeService = studyListQRCodeService;
+
+        int threads = batchThreads > 0 ? batchThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.encoderPool = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "qr-batch-encoder-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Assign QR codes to the given chemicals that do not have one yet
+     */
+    public int assignChemicalQRCodes(List<Long> chemicalIds) {
+        return assignQRCodes("chemicals", chemicalIds, qrCodeService::qrContent);
+    }
+
+    /**
+     * Assign QR codes to the given studies that do not have one yet
+     */
+    public int assignStudyQRCodes(List<Long> studyIds) {
+        return assignQRCodes("study_list", studyIds, studyListQRCodeService::qrContent);
+    }
+
+    /**
+     * Assign QR codes to every chemical that has none, e.g. rows imported before QR codes existed
+     */
+    public int assignMissingChemicalQRCodes() {
+        return assignChemicalQRCodes(chemicalRepo.findIdsWithoutQrCode());
+    }
+
+    /**
+     * Assign QR codes to every study that has none
+     */
+    public int assignMissingStudyQRCodes() {
+        return assignStudyQRCodes(studyListRepo.findIdsWithoutQrCode());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        encoderPool.shutdownNow();
+    }
+
+    private int assignQRCodes(String table, List<Long> ids, Function<String, String> contentForQrCode) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+
+        long start = System.currentTimeMillis();
+        int assigned = 0;
+
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size()));
+            assigned += assignChunk(table, chunk, contentForQrCode);
+        }
+
+        log.info("QR batch: assigned {} QR codes in {} ({} rows requested) in {} ms",
+                assigned, table, ids.size(), System.currentTimeMillis() - start);
+        return assigned;
+    }
+
+    private int assignChunk(String table, List<Long> ids, Function<String, String> contentForQrCode) {
+        List<String> qrCodes = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            qrCodes.add(UUID.randomUUID().toString());
+        }
+
+        List<byte[]> images = qrCodeImageStore.isPersistImages()
+                ? encodeImages(qrCodes, contentForQrCode)
+                : null;
+
+        Timestamp generatedAt = Timestamp.valueOf(LocalDateTime.now());
+
+        Integer assigned = transactionTemplate.execute(status -> {
+            List<Object[]> updates = new ArrayList<>(ids.size());
+            for (int i = 0; i < ids.size(); i++) {
+                updates.add(new Object[]{qrCodes.get(i), generatedAt, ids.get(i)});
+            }
+
+            // Rows that got a QR code in the meantime are left alone
+            int[] updateCounts = jdbcTemplate.batchUpdate(
+                    "UPDATE " + table + " SET qr_code = ?, qr_code_generated_at = ? WHERE id = ? AND qr_code IS NULL",
+                    updates);
+
+            int count = 0;
+            List<Object[]> imageRows = new ArrayList<>();
+            for (int i = 0; i < updateCounts.length; i++) {
+                if (updateCounts[i] == 0) {
+                    continue;
+                }
+                count++;
+                if (images != null) {
+                    imageRows.add(new Object[]{qrCodes.get(i), images.get(i), generatedAt});
+                }
+            }
+
+            if (!imageRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO qr_code_images (qr_code, image, created_at) VALUES (?, ?, ?)",
+                        imageRows);
+            }
+            return count;
+        });
+
+        return assigned != null ? assigned : 0;
+    }
+
+    private List<byte[]> encodeImages(List<String> qrCodes, Function<String, String> contentForQrCode) {
+        List<Future<byte[]>> futures = new ArrayList<>(qrCodes.size());
+        for (String qrCode : qrCodes) {
+            String content = contentForQrCode.apply(qrCode);
+            futures.add(encoderPool.submit(() -> qrCodeImageStore.render(content)));
+        }
+
+        List<byte[]> images = new ArrayList<>(qrCodes.size());
+        try {
+            for (Future<byte[]> future : futures) {
+                images.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("QR code batch encoding interrupted", e);
+        } catch (Exception e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new RuntimeException("Failed to encode QR code images", e);
+        }
+        return images;
+    }
+}
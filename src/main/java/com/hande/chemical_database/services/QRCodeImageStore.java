@@ -0,0 +1,150 @@
+package com.hande.chemical_database.services;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.WriterException;
+import com.google.zxing.client.j2se.MatrixToImageWriter;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.hande.chemical_database.entities.QRCodeImage;
+import com.hande.chemical_database.repositories.QRCodeImageRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Image store for QR code PNGs shared by chemicals and studies.
+ *
+ * In "render" mode (app.qr.image-mode=render) only the QR code UUID is kept in the
+ * database and the PNG is rebuilt from its content on request. In "persist" mode the
+ * PNG is also written to qr_code_images. Either way served images go through a
+ * byte-bounded LRU cache.
+ */
+@Service
+@Slf4j
+public class QRCodeImageStore {
+
+    private static final int QR_CODE_WIDTH = 300;
+    private static final int QR_CODE_HEIGHT = 300;
+
+    private final QRCodeImageRepo qrCodeImageRepo;
+    private final boolean persistImages;
+    private final BoundedLruCache<String, byte[]> imageCache;
+
+    public QRCodeImageStore(QRCodeImageRepo qrCodeImageRepo,
+                            @Value("${app.qr.image-mode:persist}") String imageMode,
+                            @Value("${app.qr.cache-max-bytes:16777216}") long cacheMaxBytes) {
+        this.qrCodeImageRepo = qrCodeImageRepo;
+        this.persistImages = !"render".equalsIgnoreCase(imageMode);
+        this.imageCache = new BoundedLruCache<>(cacheMaxBytes, image -> image.length);
+        log.info("QR code images: mode={}, cache={} bytes", persistImages ? "persist" : "render", cacheMaxBytes);
+    }
+
+    /**
+     * Called when a new QR code is assigned. Only writes a blob in persist mode.
+     */
+    public void storeImage(String qrCode, String content) throws WriterException, IOException {
+        if (!persistImages) {
+            return;
+        }
+        saveImage(qrCode, render(content));
+    }
+
+    /**
+     * Get the PNG of a QR code, rendering it from its content if it is not cached or stored
+     */
+    public byte[] getImage(String qrCode, String content) {
+        byte[] image = imageCache.get(qrCode);
+        if (image != null) {
+            return image;
+        }
+
+        if (persistImages) {
+            image = qrCodeImageRepo.findById(qrCode).map(QRCodeImage::getImage).orElse(null);
+        }
+
+        if (image == null) {
+            try {
+                image = render(content);
+            } catch (Exception e) {
+                log.error("Error rendering QR code image {}", qrCode, e);
+                throw new RuntimeException("Failed to render QR code image", e);
+            }
+            if (persistImages) {
+                // Blob went missing, rebuild it so the printed label stays valid
+                saveImage(qrCode, image);
+            }
+        }
+
+        imageCache.put(qrCode, image);
+        return image;
+    }
+
+    public byte[] render(String content) throws WriterException, IOException {
+        QRCodeWriter qrCodeWriter = new QRCodeWriter();
+        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, QR_CODE_WIDTH, QR_CODE_HEIGHT);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
+
+        return outputStream.toByteArray();
+    }
+
+    public boolean hasImage(String qrCode) {
+        if (qrCode == null) {
+            return false;
+        }
+        return !persistImages || qrCodeImageRepo.existsById(qrCode);
+    }
+
+    public boolean isPersistImages() {
+        return persistImages;
+    }
+
+    public void deleteImage(String qrCode) {
+        if (qrCode == null) {
+            return;
+        }
+        imageCache.evict(qrCode);
+        if (qrCodeImageRepo.existsById(qrCode)) {
+            qrCodeImageRepo.deleteById(qrCode);
+            log.debug("Deleted QR code image {}", qrCode);
+        }
+    }
+
+    /**
+     * Bulk counterpart of deleteImage for the chemicals matching the filter (null matches all).
+     * Must run in the transaction that deletes those chemicals, before they are deleted.
+     */
+    public int deleteChemicalImages(String storage, String responsible) {
+        int deleted = qrCodeImageRepo.deleteChemicalImages(storage, responsible);
+        // Cheaper than collecting the codes, the cache refills from the remaining rows
+        imageCache.clear();
+        return deleted;
+    }
+
+    /**
+     * Bulk counterpart of deleteImage for the studies matching the filter (null matches all).
+     * Must run in the transaction that deletes those studies, before they are deleted.
+     */
+    public int deleteStudyImages(String status) {
+        int deleted = qrCodeImageRepo.deleteStudyImages(status);
+        imageCache.clear();
+        return deleted;
+    }
+
+    public Map<String, Object> getCacheStats() {
+        return imageCache.stats();
+    }
+
+    private void saveImage(String qrCode, byte[] image) {
+        qrCodeImageRepo.save(QRCodeImage.builder()
+                .qrCode(qrCode)
+                .image(image)
+                .build());
+        log.debug("Stored QR code image {} ({} bytes)", qrCode, image.length);
+    }
+}
@@ -0,0 +1,119 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
+import com.hande.chemical_database.events.StudiesChangedEvent;
+import com.hande.chemical_database.models.ChemicalDTO;
+import com.hande.chemical_database.models.StudyListDTO;
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache of QR scan lookups: QR UUID to the slim DTO of the chemical or study.
+ * During audits many scanners hit the same few hundred labels, so most scans skip the
+ * database entirely.
+ *
+ * Entries are evicted by id from ChemicalsChangedEvent / StudiesChangedEvent and by key
+ * when a QR code is replaced. A lookup only stores its result if no invalidation happened
+ * while it was loading, so a slow read cannot put back a row that was just changed.
+ */
+@Service
+@Slf4j
+public class QRCodeLookupCache {
+
+    private final ChemicalRepo chemicalRepo;
+    private final StudyListRepo studyListRepo;
+    private final BoundedLruCache<String, ChemicalDTO> chemicals;
+    private final BoundedLruCache<String, StudyListDTO> studies;
+    private final AtomicLong chemicalsVersion = new AtomicLong();
+    private final AtomicLong studiesVersion = new AtomicLong();
+
+    public QRCodeLookupCache(ChemicalRepo chemicalRepo, StudyListRepo studyListRepo,
+                             @Value("${app.qr.lookup-cache-max-entries:2000}") int maxEntries) {
+        this.chemicalRepo = chemicalRepo;
+        this.studyListRepo = studyListRepo;
+        this.chemicals = BoundedLruCache.ofMaxEntries(maxEntries);
+        this.studies = BoundedLruCache.ofMaxEntries(maxEntries);
+    }
+
+    public Optional<ChemicalDTO> findChemical(String qrCode) {
+        return readThrough(chemicals, chemicalsVersion, qrCode, chemicalRepo::findDtoByQrCode);
+    }
+
+    public Optional<StudyListDTO> findStudy(String qrCode) {
+        return readThrough(studies, studiesVersion, qrCode, studyListRepo::findDtoByQrCode);
+    }
+
+    public void evictChemical(String qrCode) {
+        if (qrCode != null) {
+            chemicalsVersion.incrementAndGet();
+            chemicals.evict(qrCode);
+        }
+    }
+
+    public void evictStudy(String qrCode) {
+        if (qrCode != null) {
+            studiesVersion.incrementAndGet();
+            studies.evict(qrCode);
+        }
+    }
+
+    public Map<String, Object> getChemicalStats() {
+        return chemicals.stats();
+    }
+
+    public Map<String, Object> getStudyStats() {
+        return studies.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChemicalsChanged(ChemicalsChangedEvent event) {
+        chemicalsVersion.incrementAndGet();
+        if (event.isAll()) {
+            chemicals.clear();
+        } else {
+            Set<Long> ids = new HashSet<>(event.getIds());
+            chemicals.evictIf(chemical -> ids.contains(chemical.getId()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudiesChanged(StudiesChangedEvent event) {
+        studiesVersion.incrementAndGet();
+        if (event.isAll()) {
+            studies.clear();
+        } else {
+            Set<Long> ids = new HashSet<>(event.getIds());
+            studies.evictIf(study -> ids.contains(study.getId()));
+        }
+    }
+
+    private static <T> Optional<T> readThrough(BoundedLruCache<String, T> cache, AtomicLong version,
+                                               String qrCode, Function<String, Optional<T>> loader) {
+        if (qrCode == null) {
+            return Optional.empty();
+        }
+        T cached = cache.get(qrCode);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        long versionBefore = version.get();
+        Optional<T> loaded = loader.apply(qrCode);
+        // Unknown codes are not cached, a label printed before its row is saved must still resolve
+        if (loaded.isPresent() && version.get() == versionBefore) {
+            cache.put(qrCode, loaded.get());
+        }
+        return loaded;
+    }
+}
@@ -1,18 +1,16 @@
 package com.hande.chemical_database.services;
 
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import com.hande.chemical_database.entities.Chemicals;
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
+import com.hande.chemical_database.models.ChemicalDTO;
 import com.hande.chemical_database.repositories.ChemicalRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -23,13 +21,13 @@ import java.util.UUID;
 public class QRCodeService {
 
     private final ChemicalRepo chemicalRepo;
+    private final QRCodeImageStore qrCodeImageStore;
+    private final QRCodeLookupCache qrCodeLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    private static final int QR_CODE_WIDTH = 300;
-    private static final int QR_CODE_HEIGHT = 300;
-
     public String generateQRCodeForChemical(Long chemicalId) {
         try {
             Chemicals chemical = chemicalRepo.findById(chemicalId)
@@ -37,19 +35,19 @@ public class QRCodeService {
 
             // Generate unique QR code identifier
             String qrCodeId = UUID.randomUUID().toString();
+            String previousQrCode = chemical.getQrCode();
 
-            // Create QR code content (URL that will show chemical info)
-            String qrContent = baseUrl + "/qr/" + qrCodeId;
-
-            // Generate QR code image
-            byte[] qrCodeImage = generateQRCodeImage(qrContent);
+            // Store the image (only written in persist mode, otherwise rendered on demand)
+            qrCodeImageStore.storeImage(qrCodeId, qrContent(qrCodeId));
 
             // Update chemical with QR code info
             chemical.setQrCode(qrCodeId);
-            chemical.setQrCodeImage(qrCodeImage);
             chemical.setQrCodeGeneratedAt(LocalDateTime.now());
 
             chemicalRepo.save(chemical);
+            // Scans of the replaced label must no longer resolve
+            qrCodeLookupCache.evictChemical(previousQrCode);
+            eventPublisher.publishEvent(ChemicalsChangedEvent.of(chemicalId));
 
             log.info("QR code generated for chemical: {} with ID: {}", chemical.getName(), qrCodeId);
             return qrCodeId;
@@ -61,13 +59,12 @@ public class QRCodeService {
     }
 
     public byte[] generateQRCodeImage(String content) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, QR_CODE_WIDTH, QR_CODE_HEIGHT);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
+        return qrCodeImageStore.render(content);
+    }
 
-        return outputStream.toByteArray();
+    // QR code content is the URL that will show chemical info
+    public String qrContent(String qrCodeId) {
+        return baseUrl + "/qr/" + qrCodeId;
     }
 
     public Chemicals getChemicalByQRCode(String qrCodeId) {
@@ -75,29 +72,52 @@ public class QRCodeService {
                 .orElseThrow(() -> new RuntimeException("Chemical not found for QR code: " + qrCodeId));
     }
 
+    /**
+     * Slim chemical row for a QR scan, served from QRCodeLookupCache
+     */
+    public ChemicalDTO getChemicalSummaryByQRCode(String qrCodeId) {
+        return qrCodeLookupCache.findChemical(qrCodeId)
+                .orElseThrow(() -> new RuntimeException("Chemical not found for QR code: " + qrCodeId));
+    }
+
+    /**
+     * PNG of an existing chemical QR code. The image of a UUID never changes, only which
+     * UUID a chemical points to.
+     */
+    public byte[] getQRCodeImageByQrCode(String qrCodeId) {
+        getChemicalSummaryByQRCode(qrCodeId); // Unknown codes are not rendered
+        return qrCodeImageStore.getImage(qrCodeId, qrContent(qrCodeId));
+    }
+
     public byte[] getQRCodeImage(Long chemicalId) {
         Chemicals chemical = chemicalRepo.findById(chemicalId)
                 .orElseThrow(() -> new RuntimeException("Chemical not found with id: " + chemicalId));
 
-        if (chemical.getQrCodeImage() == null) {
+        String qrCodeId = chemical.getQrCode();
+        if (qrCodeId == null) {
             // Generate QR code if it doesn't exist
-            generateQRCodeForChemical(chemicalId);
-            chemical = chemicalRepo.findById(chemicalId).get();
+            qrCodeId = generateQRCodeForChemical(chemicalId);
         }
 
-        return chemical.getQrCodeImage();
+        return qrCodeImageStore.getImage(qrCodeId, qrContent(qrCodeId));
+    }
+
+    public void deleteQRCodeImage(String qrCodeId) {
+        qrCodeImageStore.deleteImage(qrCodeId);
+    }
+
+    public int deleteQRCodeImages(String storage, String responsible) {
+        return qrCodeImageStore.deleteChemicalImages(storage, responsible);
     }
 
     public void regenerateQRCode(Long chemicalId) {
         Chemicals chemical = chemicalRepo.findById(chemicalId)
                 .orElseThrow(() -> new RuntimeException("Chemical not found with id: " + chemicalId));
 
-        // Clear existing QR code data
-        chemical.setQrCode(null);
-        chemical.setQrCodeImage(null);
-        chemical.setQrCodeGeneratedAt(null);
-
-        // Generate new QR code
+        // Leave the old code on the entity: generateQRCodeForChemical may get this same instance
+        // back from the session and needs it to evict the replaced label from the lookup cache
+        String previousQrCode = chemical.getQrCode();
         generateQRCodeForChemical(chemicalId);
+        qrCodeImageStore.deleteImage(previousQrCode);
     }
 }
\ No newline at end of file
@@ -0,0 +1,152 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
+import com.hande.chemical_database.events.StudiesChangedEvent;
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Dashboard counters for chemicals and studies.
+ *
+ * Counts come from GROUP BY queries and are kept as an immutable snapshot for
+ * app.stats.ttl-ms. Any change to the tables (see ChemicalsChangedEvent and
+ * StudiesChangedEvent) drops the snapshot once the writing transaction has committed.
+ */
+@Service
+@Slf4j
+public class StatisticsService {
+
+    private final ChemicalRepo chemicalRepo;
+    private final StudyListRepo studyListRepo;
+    private final long ttlMillis;
+
+    private final SnapshotHolder chemicalStats = new SnapshotHolder();
+    private final SnapshotHolder studyStats = new SnapshotHolder();
+
+    public StatisticsService(ChemicalRepo chemicalRepo,
+                             StudyListRepo studyListRepo,
+                             @Value("${app.stats.ttl-ms:30000}") long ttlMillis) {
+        this.chemicalRepo = chemicalRepo;
+        this.studyListRepo = studyListRepo;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * total, toxic, safe and unknown chemical counts
+     */
+    public Map<String, Object> getChemicalCounts() {
+        return chemicalStats.get(ttlMillis, this::loadChemicalCounts);
+    }
+
+    /**
+     * total, status and risk level study counts
+     */
+    public Map<String, Object> getStudyCounts() {
+        return studyStats.get(ttlMillis, this::loadStudyCounts);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChemicalsChanged(ChemicalsChangedEvent event) {
+        chemicalStats.invalidate();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudiesChanged(StudiesChangedEvent event) {
+        studyStats.invalidate();
+    }
+
+    private Map<String, Object> loadChemicalCounts() {
+        long toxic = 0;
+        long safe = 0;
+        long unknown = 0;
+
+        for (Object[] row : chemicalRepo.countByToxicState()) {
+            long count = ((Number) row[1]).longValue();
+            if (Boolean.TRUE.equals(row[0])) {
+                toxic += count;
+            } else if (Boolean.FALSE.equals(row[0])) {
+                safe += count;
+            } else {
+                unknown += count;
+            }
+        }
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("total", toxic + safe + unknown);
+        counts.put("toxic", toxic);
+        counts.put("safe", safe);
+        counts.put("unknown", unknown);
+        return counts;
+    }
+
+    private Map<String, Object> loadStudyCounts() {
+        Map<String, Long> byStatus = toCountMap(studyListRepo.countByStatusIgnoreCase());
+        Map<String, Long> byRisk = toCountMap(studyListRepo.countByRiskLevelIgnoreCase());
+
+        long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("total", total);
+        counts.put("completed", byStatus.getOrDefault("completed", 0L));
+        counts.put("inProgress", byStatus.getOrDefault("in progress", 0L));
+        counts.put("pending", byStatus.getOrDefault("pending", 0L));
+        counts.put("highRisk", byRisk.getOrDefault("high", 0L));
+        counts.put("mediumRisk", byRisk.getOrDefault("medium", 0L));
+        counts.put("lowRisk", byRisk.getOrDefault("low", 0L));
+        return counts;
+    }
+
+    // Null group keys are kept under null so the total still includes them
+    private static Map<String, Long> toCountMap(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.merge((String) row[0], ((Number) row[1]).longValue(), Long::sum);
+        }
+        return counts;
+    }
+
+    /**
+     * Snapshot with expiry. The version check keeps a load that raced with an
+     * invalidation from publishing counts that were read before the change.
+     */
+    private static final class SnapshotHolder {
+
+        private final AtomicLong version = new AtomicLong();
+        private volatile Map<String, Object> snapshot;
+        private volatile long expiresAt;
+
+        Map<String, Object> get(long ttlMillis, Supplier<Map<String, Object>> loader) {
+            Map<String, Object> current = snapshot;
+            if (current != null && System.currentTimeMillis() < expiresAt) {
+                return current;
+            }
+
+            long loadVersion = version.get();
+            Map<String, Object> loaded = Collections.unmodifiableMap(loader.get());
+            synchronized (this) {
+                if (version.get() == loadVersion) {
+                    expiresAt = System.currentTimeMillis() + ttlMillis;
+                    snapshot = loaded;
+                }
+            }
+            return loaded;
+        }
+
+        synchronized void invalidate() {
+            version.incrementAndGet();
+            snapshot = null;
+        }
+    }
+}
@@ -1,20 +1,17 @@
 package com.hande.chemical_database.services;
 
-import com.google.zxing.BarcodeFormat;
 import com.google.zxing.WriterException;
-import com.google.zxing.client.j2se.MatrixToImageWriter;
-import com.google.zxing.common.BitMatrix;
-import com.google.zxing.qrcode.QRCodeWriter;
 import com.hande.chemical_database.entities.StudyList;
+import com.hande.chemical_database.events.StudiesChangedEvent;
 import com.hande.chemical_database.mappers.StudyListMapper;
 import com.hande.chemical_database.models.StudyListDTO;
 import com.hande.chemical_database.repositories.StudyListRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -26,13 +23,13 @@ public class StudyListQRCodeService {
 
     private final StudyListRepo studyListRepo;
     private final StudyListMapper studyListMapper;
+    private final QRCodeImageStore qrCodeImageStore;
+    private final QRCodeLookupCache qrCodeLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String baseUrl;
 
-    private static final int QR_CODE_WIDTH = 300;
-    private static final int QR_CODE_HEIGHT = 300;
-
     /**
      * Generate QR code for a study and return the QR code ID
      */
@@ -43,19 +40,19 @@ public class StudyListQRCodeService {
 
             // Generate unique QR code identifier
             String qrCodeId = UUID.randomUUID().toString();
+            String previousQrCode = studyList.getQrCode();
 
-            // Create QR code content (URL that will show study info)
-            String qrContent = baseUrl + "/study-qr/" + qrCodeId;
-
-            // Generate QR code image
-            byte[] qrCodeImage = generateQRCodeImage(qrContent);
+            // Store the image (only written in persist mode, otherwise rendered on demand)
+            qrCodeImageStore.storeImage(qrCodeId, qrContent(qrCodeId));
 
             // Update study with QR code info
             studyList.setQrCode(qrCodeId);
-            studyList.setQrCodeImage(qrCodeImage);
             studyList.setQrCodeGeneratedAt(LocalDateTime.now());
 
             studyListRepo.save(studyList);
+            // Scans of the replaced label must no longer resolve
+            qrCodeLookupCache.evictStudy(previousQrCode);
+            eventPublisher.publishEvent(StudiesChangedEvent.of(studyListId));
 
             log.info("QR code generated for study: {} with ID: {}", studyList.getStudyCode(), qrCodeId);
             return qrCodeId;
@@ -83,13 +80,22 @@ public class StudyListQRCodeService {
         StudyList studyList = studyListRepo.findById(studyListId)
                 .orElseThrow(() -> new RuntimeException("StudyList not found with id: " + studyListId));
 
-        if (studyList.getQrCodeImage() == null) {
+        String qrCodeId = studyList.getQrCode();
+        if (qrCodeId == null) {
             // Generate QR code if it doesn't exist
-            generateQRCodeForStudyList(studyListId);
-            studyList = studyListRepo.findById(studyListId).get();
+            qrCodeId = generateQRCodeForStudyList(studyListId);
         }
 
-        return studyList.getQrCodeImage();
+        return qrCodeImageStore.getImage(qrCodeId, qrContent(qrCodeId));
+    }
+
+    /**
+     * PNG of an existing study QR code. The image of a UUID never changes, only which
+     * UUID a study points to.
+     */
+    public byte[] getQRCodeImageByQrCode(String qrCodeId) {
+        getStudyByQRCode(qrCodeId); // Unknown codes are not rendered
+        return qrCodeImageStore.getImage(qrCodeId, qrContent(qrCodeId));
     }
 
     /**
@@ -100,12 +106,11 @@ public class StudyListQRCodeService {
     }
 
     /**
-     * Get study by QR code ID and return StudyListDTO
+     * Get study by QR code ID and return StudyListDTO (served from QRCodeLookupCache)
      */
     public StudyListDTO getStudyByQRCode(String qrCodeId) {
-        StudyList studyList = studyListRepo.findByQrCode(qrCodeId)
+        return qrCodeLookupCache.findStudy(qrCodeId)
                 .orElseThrow(() -> new RuntimeException("StudyList not found for QR code: " + qrCodeId));
-        return studyListMapper.studyListToStudyListDTO(studyList);
     }
 
     /**
@@ -123,27 +128,37 @@ public class StudyListQRCodeService {
         StudyList studyList = studyListRepo.findById(studyListId)
                 .orElseThrow(() -> new RuntimeException("StudyList not found with id: " + studyListId));
 
-        // Clear existing QR code data
-        studyList.setQrCode(null);
-        studyList.setQrCodeImage(null);
-        studyList.setQrCodeGeneratedAt(null);
-
-        // Generate new QR code
+        // Leave the old code on the entity: generateQRCodeForStudyList may get this same instance
+        // back from the session and needs it to evict the replaced label from the lookup cache
+        String previousQrCode = studyList.getQrCode();
         generateQRCodeForStudyList(studyListId);
+        qrCodeImageStore.deleteImage(previousQrCode);
         log.info("QR code regenerated for study: {}", studyList.getStudyCode());
     }
 
+    /**
+     * Delete the stored image of a QR code (used when the study itself is deleted)
+     */
+    public void deleteQRCodeImage(String qrCodeId) {
+        qrCodeImageStore.deleteImage(qrCodeId);
+    }
+
+    public int deleteQRCodeImages(String status) {
+        return qrCodeImageStore.deleteStudyImages(status);
+    }
+
     /**
      * Generate the actual QR code image bytes
      */
     public byte[] generateQRCodeImage(String content) throws WriterException, IOException {
-        QRCodeWriter qrCodeWriter = new QRCodeWriter();
-        BitMatrix bitMatrix = qrCodeWriter.encode(content, BarcodeFormat.QR_CODE, QR_CODE_WIDTH, QR_CODE_HEIGHT);
-
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-        MatrixToImageWriter.writeToStream(bitMatrix, "PNG", outputStream);
+        return qrCodeImageStore.render(content);
+    }
 
-        return outputStream.toByteArray();
+    /**
+     * QR code content is the URL that will show study info
+     */
+    public String qrContent(String qrCodeId) {
+        return baseUrl + "/study-qr/" + qrCodeId;
     }
 
     /**
@@ -152,7 +167,7 @@ public class StudyListQRCodeService {
     public boolean hasQRCode(Long studyListId) {
         StudyList studyList = studyListRepo.findById(studyListId)
                 .orElseThrow(() -> new RuntimeException("StudyList not found with id: " + studyListId));
-        return studyList.getQrCode() != null && studyList.getQrCodeImage() != null;
+        return studyList.getQrCode() != null && qrCodeImageStore.hasImage(studyList.getQrCode());
     }
 
     /**
@@ -162,11 +177,14 @@ public class StudyListQRCodeService {
         StudyList studyList = studyListRepo.findById(studyListId)
                 .orElseThrow(() -> new RuntimeException("StudyList not found with id: " + studyListId));
 
+        String previousQrCode = studyList.getQrCode();
+        qrCodeImageStore.deleteImage(previousQrCode);
         studyList.setQrCode(null);
-        studyList.setQrCodeImage(null);
         studyList.setQrCodeGeneratedAt(null);
 
         studyListRepo.save(studyList);
+        qrCodeLookupCache.evictStudy(previousQrCode);
+        eventPublisher.publishEvent(StudiesChangedEvent.of(studyListId));
         log.info("QR code deleted for study: {}", studyList.getStudyCode());
     }
 }
\ No newline at end of file
@@ -1,6 +1,8 @@
 package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.entities.StudyList;
+import com.hande.chemical_database.models.CursorPage;
+import com.hande.chemical_database.models.ListVersion;
 import com.hande.chemical_database.models.StudyListDTO;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +27,11 @@ public interface StudyListService {
      */
     List<StudyListDTO> getAllStudyLists();
 
+    /**
+     * Validator for getAllStudyLists(), changes whenever the listing would
+     */
+    ListVersion getListVersion();
+
     /**
      * Get study by ID
      */
@@ -45,11 +52,22 @@ public interface StudyListService {
      */
     boolean deleteStudyListByCode(String studyCode);
 
+    /**
+     * Delete all studies with the given status (null or blank for every study) in one
+     * statement, returns the number of studies deleted
+     */
+    int deleteStudyLists(String status);
+
     /**
      * Search studies by study code with pagination
      */
     Page<StudyList> listStudyListsByCode(String filterCriteria, Pageable pageRequest);
 
+    /**
+     * Keyset listing ordered by (studyCode, id) without a count query, cursor null for the first page
+     */
+    CursorPage<StudyListDTO> listStudyListsAfter(String cursor, Integer pageSize, String codeFilter);
+
     /**
      * Check if study exists by study code
      */
@@ -2,14 +2,20 @@ package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.exceptions.ResourceNotFoundException;
 import com.hande.chemical_database.entities.StudyList;
+import com.hande.chemical_database.events.StudiesChangedEvent;
 import com.hande.chemical_database.mappers.StudyListMapper;
+import com.hande.chemical_database.models.CursorPage;
+import com.hande.chemical_database.models.ListVersion;
 import com.hande.chemical_database.models.StudyListDTO;
 import com.hande.chemical_database.repositories.StudyListRepo;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +28,10 @@ public class StudyListServiceImpl implements StudyListService {
 
     private final StudyListRepo studyListRepo;
     private final StudyListMapper studyListMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 25;
+    private static final int MAX_CURSOR_PAGE_SIZE = 1000;
 
     // Make StudyListQRCodeService optional to avoid circular dependency
     private StudyListQRCodeService qrCodeService;
@@ -59,6 +69,7 @@ public class StudyListServiceImpl implements StudyListService {
                 }
             }
 
+            eventPublisher.publishEvent(StudiesChangedEvent.of(savedStudyList.getId()));
             return studyListMapper.studyListToStudyListDTO(savedStudyList);
 
         } catch (Exception e) {
@@ -101,6 +112,7 @@ public class StudyListServiceImpl implements StudyListService {
                 studyListUpdate.setStatus(studyListDTO.getStatus());
 
                 StudyList updatedStudyList = studyListRepo.save(studyListUpdate);
+                eventPublisher.publishEvent(StudiesChangedEvent.of(updatedStudyList.getId()));
                 log.info("Successfully updated study with ID: {} and studyCode: {}",
                         updatedStudyList.getId(), updatedStudyList.getStudyCode());
 
@@ -121,17 +133,20 @@ public class StudyListServiceImpl implements StudyListService {
     @Override
     public List<StudyListDTO> getAllStudyLists() {
         try {
-            List<StudyList> studies = studyListRepo.findAll();
+            List<StudyListDTO> studies = studyListRepo.findAllDtos();
             log.info("Retrieved {} studies from database", studies.size());
-            return studies.stream()
-                    .map(studyListMapper::studyListToStudyListDTO)
-                    .collect(Collectors.toList());
+            return studies;
         } catch (Exception e) {
             log.error("Error getting all studies: {}", e.getMessage(), e);
             throw e;
         }
     }
 
+    @Override
+    public ListVersion getListVersion() {
+        return ListVersion.of(studyListRepo.findListVersion().get(0));
+    }
+
     @Override
     public Optional<StudyListDTO> getStudyListById(Long id) {
         try {
@@ -172,6 +187,8 @@ public class StudyListServiceImpl implements StudyListService {
             Optional<StudyList> studyListDb = studyListRepo.findById(id);
             if (studyListDb.isPresent()) {
                 studyListRepo.deleteById(id);
+                deleteQRCodeImage(studyListDb.get());
+                eventPublisher.publishEvent(StudiesChangedEvent.of(id));
                 log.info("Successfully deleted study with ID: {}", id);
                 return true;
             } else {
@@ -187,8 +204,11 @@ public class StudyListServiceImpl implements StudyListService {
     @Override
     public boolean deleteStudyListByCode(String studyCode) {
         try {
-            if (studyListRepo.existsByStudyCodeIgnoreCase(studyCode)) {
-                studyListRepo.deleteByStudyCode(studyCode);
+            Optional<StudyList> studyListDb = studyListRepo.findByStudyCodeIgnoreCase(studyCode);
+            if (studyListDb.isPresent()) {
+                studyListRepo.deleteByStudyCode(studyListDb.get().getStudyCode());
+                deleteQRCodeImage(studyListDb.get());
+                eventPublisher.publishEvent(StudiesChangedEvent.of(studyListDb.get().getId()));
                 log.info("Successfully deleted study with code: {}", studyCode);
                 return true;
             } else {
@@ -201,6 +221,21 @@ public class StudyListServiceImpl implements StudyListService {
         }
     }
 
+    @Override
+    @Transactional
+    public int deleteStudyLists(String status) {
+        String statusFilter = status == null || status.isBlank() ? null : status.trim();
+
+        // Images first, their subquery selects the studies that are deleted next
+        int images = qrCodeService != null ? qrCodeService.deleteQRCodeImages(statusFilter) : 0;
+        int deleted = studyListRepo.deleteAllMatching(statusFilter);
+        if (deleted > 0) {
+            eventPublisher.publishEvent(StudiesChangedEvent.all());
+        }
+        log.info("Bulk deleted {} studies and {} QR code images (status: {})", deleted, images, statusFilter);
+        return deleted;
+    }
+
     @Override
     public Page<StudyList> listStudyListsByCode(String filterCriteria, Pageable pageRequest) {
         try {
@@ -213,6 +248,24 @@ public class StudyListServiceImpl implements StudyListService {
         }
     }
 
+    @Override
+    public CursorPage<StudyListDTO> listStudyListsAfter(String cursor, Integer pageSize, String codeFilter) {
+        int size = pageSize == null || pageSize < 1 ? DEFAULT_CURSOR_PAGE_SIZE : Math.min(pageSize, MAX_CURSOR_PAGE_SIZE);
+        String pattern = KeysetCursor.containsPattern(codeFilter);
+        // One extra row tells whether there is a next page
+        PageRequest limit = PageRequest.of(0, size + 1);
+
+        List<StudyListDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = studyListRepo.findDtosOrderByStudyCode(pattern, limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = studyListRepo.findDtosAfterStudyCode(after.getKey(), after.getId(), pattern, limit);
+        }
+
+        return CursorPage.of(rows, size, last -> new KeysetCursor(last.getStudyCode(), last.getId()).encode());
+    }
+
     @Override
     public boolean existsByStudyCode(String studyCode) {
         try {
@@ -279,4 +332,10 @@ public class StudyListServiceImpl implements StudyListService {
             throw e;
         }
     }
+
+    private void deleteQRCodeImage(StudyList studyList) {
+        if (qrCodeService != null) {
+            qrCodeService.deleteQRCodeImage(studyList.getQrCode());
+        }
+    }
 }
\ No newline at end of file
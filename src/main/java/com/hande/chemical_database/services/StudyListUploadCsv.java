@@ -1,8 +1,16 @@
 package com.hande.chemical_database.services;
 
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.models.CsvImportReport;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
+
 public interface StudyListUploadCsv {
     String uploadStudyListsFromCsv(MultipartFile file);  // Changed return type to String for message
     Integer uploadStudyLists(MultipartFile file);        // Keep the old method for backward compatibility
+    CsvImportReport uploadStudyListsInChunks(MultipartFile file, Integer chunkSize, ImportMode mode);  // Streams the file, one transaction per chunk
+    CsvImportReport importStudyListsInChunks(String filename, InputStream input, Integer chunkSize, ImportMode mode,
+                                             ImportProgress progress);  // Stops between chunks when cancelled
+    void validateChunkedFile(MultipartFile file);  // Extension and chunked size limit, throws IllegalArgumentException
 }
\ No newline at end of file
@@ -1,16 +1,29 @@
 package com.hande.chemical_database.services;
 
 import com.hande.chemical_database.entities.StudyList;
+import com.hande.chemical_database.enums.ImportMode;
+import com.hande.chemical_database.events.StudiesChangedEvent;
+import com.hande.chemical_database.models.CsvImportReport;
 import com.hande.chemical_database.repositories.StudyListRepo;
+import com.hande.chemical_database.utils.StudyCodes;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -19,6 +32,21 @@ import java.util.stream.Collectors;
 public class StudyListUploadCsvImpl implements StudyListUploadCsv {
 
     private final StudyListRepo studyListRepo;
+    private final QRCodeBatchGenerator qrCodeBatchGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ExistingKeyLookup existingKeyLookup;
+    private final ParallelCsvParser parallelCsvParser;
+
+    @Value("${app.csv.max-file-size:10485760}")
+    private long maxFileSize;
+
+    @Value("${app.csv.chunked.max-file-size:536870912}")
+    private long maxChunkedFileSize;
+
+    @Value("${app.csv.chunk-size:1000}")
+    private int defaultChunkSize;
 
     @Override
     public String uploadStudyListsFromCsv(MultipartFile file) {
@@ -28,7 +56,7 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
 
     @Override
     public Integer uploadStudyLists(MultipartFile file) {
-        validateFile(file);
+        validateFile(file, maxFileSize);
 
         Set<StudyList> studyListsSet;
         try {
@@ -45,18 +73,18 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
             throw new IllegalArgumentException("No valid study records found in CSV file. Please check the format and column headers.");
         }
 
-        // Get existing study codes to check for duplicates
-        Set<String> existingCodes = studyListRepo.findAllStudyCodes()
-                .stream()
-                .map(String::toLowerCase)
-                .collect(Collectors.toSet());
+        // Look up only the study codes in the file to check for duplicates
+        Set<String> existingCodes = existingKeyLookup.existingStudyCodeKeys(studyListsSet.stream()
+                .map(study -> StudyCodes.key(study.getStudyCode()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
 
         // Filter out duplicates and save
         List<StudyList> newStudies = studyListsSet.stream()
                 .filter(study -> {
                     String code = study.getStudyCode();
                     if (code == null) return false;
-                    return !existingCodes.contains(code.toLowerCase());
+                    return !existingCodes.contains(StudyCodes.key(code));
                 })
                 .collect(Collectors.toList());
 
@@ -67,10 +95,219 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
         List<StudyList> savedStudies = studyListRepo.saveAll(newStudies);
         log.info("Successfully saved {} studies from CSV file", savedStudies.size());
 
+        List<Long> savedIds = savedStudies.stream()
+                .map(StudyList::getId)
+                .collect(Collectors.toList());
+        assignQRCodes(savedIds);
+        eventPublisher.publishEvent(new StudiesChangedEvent(savedIds));
+
         return savedStudies.size();
     }
 
-    private void validateFile(MultipartFile file) {
+    @Override
+    public CsvImportReport uploadStudyListsInChunks(MultipartFile file, Integer chunkSize, ImportMode mode) {
+        validateChunkedFile(file);
+
+        try (InputStream input = file.getInputStream()) {
+            return importStudyListsInChunks(file.getOriginalFilename(), input, chunkSize, mode, ImportProgress.NONE);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Error reading CSV file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CsvImportReport importStudyListsInChunks(String filename, InputStream input, Integer chunkSize, ImportMode mode,
+                                                    ImportProgress progress) {
+        int rowsPerChunk = chunkSize != null && chunkSize > 0 ? Math.min(chunkSize, 10_000) : defaultChunkSize;
+        CsvImportReport report = new CsvImportReport(filename, rowsPerChunk, mode != null ? mode : ImportMode.INSERT);
+        long start = System.currentTimeMillis();
+
+        // Rows are read one at a time and committed per chunk, only the current chunk is held in memory
+        List<StudyList> chunk = new ArrayList<>(rowsPerChunk);
+        try (Reader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            // The invalid count is kept current so running jobs can report it per chunk
+            int invalidRows = parseCsvRecords(reader, study -> {
+                chunk.add(study);
+                if (chunk.size() >= rowsPerChunk) {
+                    saveChunk(report, chunk, progress);
+                }
+            }, rejected -> report.setRowsInvalid(report.getRowsInvalid() + rejected));
+            if (!chunk.isEmpty()) {
+                saveChunk(report, chunk, progress);
+            }
+            report.setRowsInvalid(invalidRows);
+        } catch (CancellationException e) {
+            // Chunks committed so far stay, the rest of the file is not read
+            report.setCancelled(true);
+        } catch (IOException e) {
+            log.error("Error reading CSV file: {}", filename, e);
+            throw new RuntimeException("Error reading CSV file: " + e.getMessage(), e);
+        }
+
+        report.setDurationMs(System.currentTimeMillis() - start);
+        log.info("Chunked study upload {} ({}): {} parsed, {} saved, {} updated, {} unchanged, {} skipped, {} invalid, {} failed in {} chunks ({} ms)",
+                report.isCancelled() ? "cancelled" : "completed", report.getMode(),
+                report.getRowsParsed(), report.getRowsSaved(), report.getRowsUpdated(), report.getRowsUnchanged(),
+                report.getRowsSkipped(), report.getRowsInvalid(),
+                report.getRowsFailed(), report.getChunks().size(), report.getDurationMs());
+        return report;
+    }
+
+    private void saveChunk(CsvImportReport report, List<StudyList> chunk, ImportProgress progress) {
+        if (progress.isCancelled()) {
+            throw new CancellationException();
+        }
+        int chunkNumber = report.getChunks().size() + 1;
+        report.addChunk(report.getMode() == ImportMode.UPSERT ? upsertChunk(chunkNumber, chunk) : saveChunk(chunkNumber, chunk));
+        chunk.clear();
+        progress.chunkCompleted(report);
+    }
+
+    private CsvImportReport.ChunkReport saveChunk(int chunkNumber, List<StudyList> chunk) {
+        long start = System.currentTimeMillis();
+
+        // Study codes are compared case-insensitively, the first row per code wins
+        Map<String, StudyList> studiesByCode = new LinkedHashMap<>();
+        for (StudyList study : chunk) {
+            studiesByCode.putIfAbsent(StudyCodes.key(study.getStudyCode()), study);
+        }
+        Set<String> existingCodes = existingKeyLookup.existingStudyCodeKeys(studiesByCode.keySet());
+        List<StudyList> newStudies = studiesByCode.entrySet().stream()
+                .filter(entry -> !existingCodes.contains(entry.getKey()))
+                .map(Map.Entry::getValue)
+                .collect(Collectors.toList());
+
+        CsvImportReport.ChunkReport.ChunkReportBuilder chunkReport = CsvImportReport.ChunkReport.builder()
+                .chunkNumber(chunkNumber)
+                .rowsParsed(chunk.size())
+                .rowsSkipped(chunk.size() - newStudies.size());
+
+        try {
+            List<Long> savedIds = transactionTemplate.execute(status -> {
+                List<Long> ids = studyListRepo.saveAll(newStudies).stream()
+                        .map(StudyList::getId)
+                        .collect(Collectors.toList());
+                // Detach the chunk so the persistence context does not grow with the file
+                entityManager.flush();
+                entityManager.clear();
+                return ids;
+            });
+            chunkReport.rowsSaved(savedIds.size());
+            assignQRCodes(savedIds);
+            if (!savedIds.isEmpty()) {
+                eventPublisher.publishEvent(new StudiesChangedEvent(savedIds));
+            }
+        } catch (Exception e) {
+            log.error("Study chunk {} failed and was rolled back: {}", chunkNumber, e.getMessage());
+            chunkReport.error(e.getMessage());
+        }
+
+        CsvImportReport.ChunkReport result = chunkReport.durationMs(System.currentTimeMillis() - start).build();
+        log.info("Study chunk {} committed - {} saved, {} skipped", chunkNumber, result.getRowsSaved(), result.getRowsSkipped());
+        return result;
+    }
+
+    /**
+     * Upsert on study code (ignoring case): new codes are inserted, existing rows are only
+     * written when their content hash differs. Changed rows are updated through the managed
+     * entities, so Hibernate sends them as JDBC batches.
+     */
+    private CsvImportReport.ChunkReport upsertChunk(int chunkNumber, List<StudyList> chunk) {
+        long start = System.currentTimeMillis();
+
+        // The last row per code wins, it is the latest edit in the file
+        Map<String, StudyList> studiesByCode = new LinkedHashMap<>();
+        for (StudyList study : chunk) {
+            studiesByCode.put(StudyCodes.key(study.getStudyCode()), study);
+        }
+        Map<String, Object[]> existingByCode = new HashMap<>();
+        for (Object[] existing : studyListRepo.findContentHashesByStudyCodeKeyIn(studiesByCode.keySet())) {
+            existingByCode.put((String) existing[0], existing);
+        }
+
+        List<StudyList> newStudies = new ArrayList<>();
+        Map<Long, StudyList> changedById = new HashMap<>();
+        int unchanged = 0;
+        for (Map.Entry<String, StudyList> entry : studiesByCode.entrySet()) {
+            Object[] existing = existingByCode.get(entry.getKey());
+            if (existing == null) {
+                newStudies.add(entry.getValue());
+            } else if (entry.getValue().importedFieldsHash().equals(existing[2])) {
+                unchanged++;
+            } else {
+                changedById.put((Long) existing[1], entry.getValue());
+            }
+        }
+
+        CsvImportReport.ChunkReport.ChunkReportBuilder chunkReport = CsvImportReport.ChunkReport.builder()
+                .chunkNumber(chunkNumber)
+                .rowsParsed(chunk.size())
+                .rowsUnchanged(unchanged)
+                .rowsSkipped(chunk.size() - studiesByCode.size());
+
+        try {
+            List<Long> updatedIds = new ArrayList<>();
+            List<Long> savedIds = transactionTemplate.execute(status -> {
+                for (StudyList target : studyListRepo.findAllById(changedById.keySet())) {
+                    copyImportedFields(changedById.get(target.getId()), target);
+                    updatedIds.add(target.getId());
+                }
+                List<Long> ids = studyListRepo.saveAll(newStudies).stream()
+                        .map(StudyList::getId)
+                        .collect(Collectors.toList());
+                // Detach the chunk so the persistence context does not grow with the file
+                entityManager.flush();
+                entityManager.clear();
+                return ids;
+            });
+            chunkReport.rowsSaved(savedIds.size()).rowsUpdated(updatedIds.size());
+            assignQRCodes(savedIds);
+            List<Long> changedIds = new ArrayList<>(savedIds);
+            changedIds.addAll(updatedIds);
+            if (!changedIds.isEmpty()) {
+                eventPublisher.publishEvent(new StudiesChangedEvent(changedIds));
+            }
+        } catch (Exception e) {
+            log.error("Study upsert chunk {} failed and was rolled back: {}", chunkNumber, e.getMessage());
+            chunkReport.error(e.getMessage());
+        }
+
+        CsvImportReport.ChunkReport result = chunkReport.durationMs(System.currentTimeMillis() - start).build();
+        log.info("Study chunk {} committed - {} saved, {} updated, {} unchanged", chunkNumber,
+                result.getRowsSaved(), result.getRowsUpdated(), result.getRowsUnchanged());
+        return result;
+    }
+
+    // The columns a CSV row carries; id, QR code and audit fields stay untouched
+    private static void copyImportedFields(StudyList source, StudyList target) {
+        target.setStudyCode(source.getStudyCode());
+        target.setDocumentCodes(source.getDocumentCodes());
+        target.setMaterialType(source.getMaterialType());
+        target.setStudyLevel(source.getStudyLevel());
+        target.setRiskLevel(source.getRiskLevel());
+        target.setInfo(source.getInfo());
+        target.setNumberOfSamples(source.getNumberOfSamples());
+        target.setObjectOfStudy(source.getObjectOfStudy());
+        target.setResponsiblePerson(source.getResponsiblePerson());
+        target.setStatus(source.getStatus());
+    }
+
+    private void assignQRCodes(List<Long> studyIds) {
+        try {
+            qrCodeBatchGenerator.assignStudyQRCodes(studyIds);
+        } catch (Exception e) {
+            // Rows are already saved, QR codes can still be generated later
+            log.warn("Failed to assign QR codes to imported studies: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void validateChunkedFile(MultipartFile file) {
+        validateFile(file, maxChunkedFileSize);
+    }
+
+    private void validateFile(MultipartFile file, long maxSize) {
         if (file == null || file.isEmpty()) {
             throw new IllegalArgumentException("File cannot be empty");
         }
@@ -80,69 +317,80 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
             throw new IllegalArgumentException("File must be a CSV file");
         }
 
-        // Check file size (max 10MB)
-        if (file.getSize() > 10 * 1024 * 1024) {
-            throw new IllegalArgumentException("File size cannot exceed 10MB");
+        // Check file size
+        if (file.getSize() > maxSize) {
+            throw new IllegalArgumentException("File size cannot exceed " + (maxSize / (1024 * 1024)) + "MB");
         }
     }
 
     private Set<StudyList> parseCsvWithDelimiterDetection(MultipartFile file) throws IOException {
         Set<StudyList> studies = new HashSet<>();
 
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), "UTF-8"))) {
-            String line;
-            boolean isFirstLine = true;
-            String[] headers = null;
-            char delimiter = detectDelimiter(file);
-
-            log.info("Detected delimiter: '{}'", delimiter);
-
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.isEmpty()) continue;
-
-                if (isFirstLine) {
-                    headers = parseCSVLine(line, delimiter);
-
-                    // Clean headers
-                    for (int i = 0; i < headers.length; i++) {
-                        headers[i] = cleanHeader(headers[i]);
-                    }
-
-                    log.info("CSV Headers detected: {}", Arrays.toString(headers));
-                    validateHeaders(headers);
-                    isFirstLine = false;
-                } else {
-                    String[] values = parseCSVLine(line, delimiter);
-                    StudyList study = createStudyFromCsvRow(headers, values);
-                    if (study != null && study.getStudyCode() != null && !study.getStudyCode().trim().isEmpty()) {
-                        studies.add(study);
-                    }
-                }
-            }
+        try (Reader reader = new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8)) {
+            parseCsvRecords(reader, studies::add);
         }
 
         log.info("Parsed {} studies from CSV", studies.size());
         return studies;
     }
 
-    private char detectDelimiter(MultipartFile file) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(file.getInputStream(), "UTF-8"))) {
-            String firstLine = reader.readLine();
-            if (firstLine == null) return ';';
+    /**
+     * Parse the CSV record by record and hand every valid study to the consumer.
+     * Returns the number of rows that were skipped as invalid.
+     * Package-private like the helpers it calls so the JMH benchmarks (src/jmh/java) can drive it.
+     */
+    int parseCsvRecords(Reader reader, Consumer<StudyList> consumer) throws IOException {
+        return parseCsvRecords(reader, consumer, rejected -> {
+        });
+    }
+
+    // Also tells onInvalidRows about rejected rows as they are found, see ParallelCsvParser.parse
+    int parseCsvRecords(Reader reader, Consumer<StudyList> consumer, IntConsumer onInvalidRows) throws IOException {
+        Consumer<String> warnings = log::warn;
+        if (parallelCsvParser != null && parallelCsvParser.isEnabled()) {
+            return parallelCsvParser.parse(reader, this::recordMapper, consumer, warnings, onInvalidRows);
+        }
 
-            // Count occurrences of potential delimiters
-            long semicolonCount = firstLine.chars().filter(ch -> ch == ';').count();
-            long commaCount = firstLine.chars().filter(ch -> ch == ',').count();
-            long tabCount = firstLine.chars().filter(ch -> ch == '\t').count();
+        CsvTokenizer tokenizer = new CsvTokenizer(reader);
+        CsvRow row = new CsvRow();
+        int invalidRows = 0;
 
-            // Use semicolon by default (European standard), then comma, then tab
-            if (semicolonCount > 0) return ';';
-            if (commaCount > 0) return ',';
-            if (tabCount > 0) return '\t';
+        if (!tokenizer.next(row)) {
+            return 0;
+        }
+        ParallelCsvParser.RecordMapper<StudyList> mapper = recordMapper(row.toArray(), tokenizer.getDelimiter());
 
-            return ';'; // Default fallback
+        while (tokenizer.next(row)) {
+            StudyList study = mapper.map(row, warnings);
+            if (study != null) {
+                consumer.accept(study);
+            } else {
+                invalidRows++;
+                onInvalidRows.accept(1);
+            }
         }
+
+        return invalidRows;
+    }
+
+    /**
+     * Validate the header line and return the mapper for the rows below it
+     */
+    ParallelCsvParser.RecordMapper<StudyList> recordMapper(String[] rawHeaders, char delimiter) {
+        // Clean headers
+        String[] headers = new String[rawHeaders.length];
+        for (int i = 0; i < rawHeaders.length; i++) {
+            headers[i] = cleanHeader(rawHeaders[i]);
+        }
+
+        log.info("Detected delimiter: '{}'", delimiter);
+        log.info("CSV Headers detected: {}", Arrays.toString(headers));
+        validateHeaders(headers);
+
+        return (row, warnings) -> {
+            StudyList study = createStudyFromCsvRow(headers, row, warnings);
+            return study != null && study.getStudyCode() != null && !study.getStudyCode().trim().isEmpty() ? study : null;
+        };
     }
 
     private void validateHeaders(String[] headers) {
@@ -170,13 +418,19 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
         }
     }
 
-    private StudyList createStudyFromCsvRow(String[] headers, String[] values) {
+    StudyList createStudyFromCsvRow(String[] headers, CsvRow row) {
+        return createStudyFromCsvRow(headers, row, log::warn);
+    }
+
+    // Row problems go to warnings so the parallel parser can report them in file order
+    StudyList createStudyFromCsvRow(String[] headers, CsvRow row, Consumer<String> warnings) {
         try {
             StudyList study = new StudyList();
 
-            for (int i = 0; i < headers.length && i < values.length; i++) {
-                String header = cleanHeader(headers[i]);
-                String value = cleanValue(values[i]);
+            // Headers are cleaned once when the header line is read
+            for (int i = 0; i < headers.length && i < row.size(); i++) {
+                String header = headers[i];
+                String value = cleanValue(row, i);
 
                 switch (header) {
                     case "study code":
@@ -230,7 +484,7 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
 
             // Validate required fields
             if (study.getStudyCode() == null || study.getStudyCode().trim().isEmpty()) {
-                log.warn("Skipping row with missing study code: {}", Arrays.toString(values));
+                warnings.accept("Skipping row with missing study code: " + row);
                 return null;
             }
 
@@ -242,12 +496,12 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
             return study;
 
         } catch (Exception e) {
-            log.error("Error creating study from row: {}", Arrays.toString(values), e);
+            warnings.accept("Error creating study from row: " + row + " - " + e);
             return null;
         }
     }
 
-    private String cleanHeader(String header) {
+    String cleanHeader(String header) {
         if (header == null) return "";
         return header.trim().toLowerCase()
                 .replaceAll("\\s+", " ") // Replace multiple spaces with single space
@@ -255,20 +509,14 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
                 .trim();
     }
 
-    private String cleanValue(String value) {
-        if (value == null) return null;
+    private String cleanValue(CsvRow row, int index) {
+        // Empty cells never become Strings
+        if (row.isEmpty(index)) return null;
 
-        value = value.trim();
-
-        // Remove quotes if present
-        if (value.startsWith("\"") && value.endsWith("\"") && value.length() > 1) {
-            value = value.substring(1, value.length() - 1);
-            value = value.replace("\"\"", "\""); // Handle escaped quotes
-        }
+        String value = row.get(index);
 
         // Handle various empty value representations
-        if (value.isEmpty() ||
-                "null".equalsIgnoreCase(value) ||
+        if ("null".equalsIgnoreCase(value) ||
                 "n/a".equalsIgnoreCase(value) ||
                 "na".equalsIgnoreCase(value) ||
                 "-".equals(value) ||
@@ -277,27 +525,6 @@ public class StudyListUploadCsvImpl implements StudyListUploadCsv {
             return null;
         }
 
-        return value.trim();
-    }
-
-    private String[] parseCSVLine(String line, char delimiter) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder current = new StringBuilder();
-
-        for (char c : line.toCharArray()) {
-            if (c == '"') {
-                inQuotes = !inQuotes;
-                current.append(c);
-            } else if (c == delimiter && !inQuotes) {
-                result.add(current.toString().trim());
-                current = new StringBuilder();
-            } else {
-                current.append(c);
-            }
-        }
-        result.add(current.toString().trim());
-
-        return result.toArray(new String[0]);
+        return value;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,235 @@
+package com.hande.chemical_database.services;
+
+import com.hande.chemical_database.events.ChemicalsChangedEvent;
+import com.hande.chemical_database.events.StudiesChangedEvent;
+import com.hande.chemical_database.models.Suggestion;
+import com.hande.chemical_database.repositories.ChemicalRepo;
+import com.hande.chemical_database.repositories.StudyListRepo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Typeahead for chemical names, CAS numbers and study codes, answered from in-memory
+ * prefix indexes instead of LIKE queries that load whole entities.
+ *
+ * Loaded once the application is ready and updated per row from ChemicalsChangedEvent
+ * and StudiesChangedEvent. Until then suggestions are empty. A full reload (an "all"
+ * event, e.g. after a bulk delete) builds new indexes next to the live ones and swaps
+ * them in when complete, so typeahead keeps answering from the old data meanwhile.
+ */
+@Service
+@Slf4j
+public class SuggestionService {
+
+    public static final int DEFAULT_LIMIT = 10;
+    public static final int MAX_LIMIT = 50;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+
+    private final ChemicalRepo chemicalRepo;
+    private final StudyListRepo studyListRepo;
+    private final boolean enabled;
+
+    private volatile PrefixIndex chemicalNames = new PrefixIndex("name");
+    private volatile PrefixIndex chemicalCasNos = new PrefixIndex("casNo");
+    private volatile PrefixIndex studyCodes = new PrefixIndex("studyCode");
+
+    // Per-row updates and swaps hold these; while a reload runs, the ids changed meanwhile are
+    // collected and applied to the new indexes before the swap, the reload may have read them too early
+    private final Object chemicalsLock = new Object();
+    private final Object studiesLock = new Object();
+    private Set<Long> chemicalsChangedDuringLoad;
+    private Set<Long> studiesChangedDuringLoad;
+
+    public SuggestionService(ChemicalRepo chemicalRepo, StudyListRepo studyListRepo,
+                             @Value("${app.suggest.enabled:true}") boolean enabled) {
+        this.chemicalRepo = chemicalRepo;
+        this.studyListRepo = studyListRepo;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Chemicals whose name or CAS number starts with the query; name matches come first
+     */
+    public List<Suggestion> suggestChemicals(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return Collections.emptyList();
+        }
+        int max = normalizeLimit(limit);
+        List<Suggestion> result = new ArrayList<>(chemicalNames.suggest(query, max));
+        if (result.size() < max) {
+            result.addAll(chemicalCasNos.suggest(query, max - result.size()));
+        }
+        return result;
+    }
+
+    public List<Suggestion> suggestStudies(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            return Collections.emptyList();
+        }
+        return studyCodes.suggest(query, normalizeLimit(limit));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!enabled) {
+            log.info("Suggestion indexes disabled");
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            loadChemicals();
+            loadStudies();
+            log.info("Suggestion indexes built: {} chemicals, {} studies in {} ms",
+                    chemicalNames.size(), studyCodes.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to build suggestion indexes", e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChemicalsChanged(ChemicalsChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (event.isAll()) {
+                loadChemicals();
+                return;
+            }
+            synchronized (chemicalsLock) {
+                refreshChemicals(chemicalNames, chemicalCasNos, event.getIds());
+                if (chemicalsChangedDuringLoad != null) {
+                    chemicalsChangedDuringLoad.addAll(event.getIds());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to update chemical suggestions for {}", event.getIds(), e);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudiesChanged(StudiesChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (event.isAll()) {
+                loadStudies();
+                return;
+            }
+            synchronized (studiesLock) {
+                refreshStudies(studyCodes, event.getIds());
+                if (studiesChangedDuringLoad != null) {
+                    studiesChangedDuringLoad.addAll(event.getIds());
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to update study suggestions for {}", event.getIds(), e);
+        }
+    }
+
+    // Synchronized so overlapping reloads do not share the changed-ids set
+    private synchronized void loadChemicals() {
+        synchronized (chemicalsLock) {
+            chemicalsChangedDuringLoad = new HashSet<>();
+        }
+        try {
+            PrefixIndex names = new PrefixIndex("name");
+            PrefixIndex casNos = new PrefixIndex("casNo");
+            loadInBatches(chemicalRepo::findSearchFieldsAfterId, row -> indexChemical(names, casNos, row));
+            synchronized (chemicalsLock) {
+                if (!chemicalsChangedDuringLoad.isEmpty()) {
+                    refreshChemicals(names, casNos, chemicalsChangedDuringLoad);
+                }
+                chemicalNames = names;
+                chemicalCasNos = casNos;
+            }
+        } finally {
+            synchronized (chemicalsLock) {
+                chemicalsChangedDuringLoad = null;
+            }
+        }
+    }
+
+    private synchronized void loadStudies() {
+        synchronized (studiesLock) {
+            studiesChangedDuringLoad = new HashSet<>();
+        }
+        try {
+            PrefixIndex codes = new PrefixIndex("studyCode");
+            loadInBatches(studyListRepo::findStudyCodesAfterId, row -> codes.put((Long) row[0], (String) row[1]));
+            synchronized (studiesLock) {
+                if (!studiesChangedDuringLoad.isEmpty()) {
+                    refreshStudies(codes, studiesChangedDuringLoad);
+                }
+                studyCodes = codes;
+            }
+        } finally {
+            synchronized (studiesLock) {
+                studiesChangedDuringLoad = null;
+            }
+        }
+    }
+
+    // Re-read the given rows, ids that are gone were deleted
+    private void refreshChemicals(PrefixIndex names, PrefixIndex casNos, Collection<Long> ids) {
+        Set<Long> deleted = new HashSet<>(ids);
+        for (Object[] row : chemicalRepo.findSearchFieldsByIdIn(ids)) {
+            deleted.remove((Long) row[0]);
+            indexChemical(names, casNos, row);
+        }
+        for (Long id : deleted) {
+            names.remove(id);
+            casNos.remove(id);
+        }
+    }
+
+    private void refreshStudies(PrefixIndex codes, Collection<Long> ids) {
+        Set<Long> deleted = new HashSet<>(ids);
+        for (Object[] row : studyListRepo.findStudyCodesByIdIn(ids)) {
+            deleted.remove((Long) row[0]);
+            codes.put((Long) row[0], (String) row[1]);
+        }
+        deleted.forEach(codes::remove);
+    }
+
+    private static void indexChemical(PrefixIndex names, PrefixIndex casNos, Object[] row) {
+        long id = (Long) row[0];
+        names.put(id, (String) row[1]);
+        casNos.put(id, (String) row[4]);
+    }
+
+    // Keyset pages of [id, ...] rows ordered by id
+    private static void loadInBatches(BiFunction<Long, PageRequest, List<Object[]>> query, Consumer<Object[]> consumer) {
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = query.apply(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            rows.forEach(consumer);
+            if (!rows.isEmpty()) {
+                afterId = (Long) rows.get(rows.size() - 1)[0];
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+    }
+
+    private static int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_LIMIT;
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -0,0 +1,160 @@
+package com.hande.chemical_database.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Inverted index from lower-cased character trigrams to row ids, answering
+ * "value contains term" (case-insensitive) without scanning every row.
+ *
+ * Posting lists are sorted primitive long arrays. Candidates from intersecting the
+ * term's trigrams are verified against the stored value, so results are exact.
+ * Terms shorter than three characters fall back to a scan of the stored values.
+ *
+ * Not thread-safe, callers guard access (see ChemicalSearchIndex).
+ */
+public class TrigramIndex {
+
+    private final Map<Long, PostingList> postings = new HashMap<>();
+    private final Map<Long, String> values = new HashMap<>();
+
+    public int size() {
+        return values.size();
+    }
+
+    public void put(long id, String value) {
+        remove(id);
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+        String normalized = normalize(value);
+        values.put(id, normalized);
+        for (int i = 0; i + 3 <= normalized.length(); i++) {
+            postings.computeIfAbsent(trigram(normalized, i), key -> new PostingList()).add(id);
+        }
+    }
+
+    public void remove(long id) {
+        String previous = values.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (int i = 0; i + 3 <= previous.length(); i++) {
+            long key = trigram(previous, i);
+            PostingList list = postings.get(key);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    public void clear() {
+        postings.clear();
+        values.clear();
+    }
+
+    /**
+     * Ids of all values containing the term, ignoring case, in ascending id order
+     */
+    public List<Long> search(String term) {
+        String normalized = normalize(term);
+        List<Long> result = new ArrayList<>();
+
+        if (normalized.length() < 3) {
+            values.forEach((id, value) -> {
+                if (value.contains(normalized)) {
+                    result.add(id);
+                }
+            });
+            result.sort(null);
+            return result;
+        }
+
+        // Intersect starting from the rarest trigram
+        int count = normalized.length() - 2;
+        PostingList[] lists = new PostingList[count];
+        for (int i = 0; i < count; i++) {
+            PostingList list = postings.get(trigram(normalized, i));
+            if (list == null) {
+                return result;
+            }
+            lists[i] = list;
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        PostingList smallest = lists[0];
+        candidates:
+        for (int i = 0; i < smallest.size; i++) {
+            long id = smallest.ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                if (!lists[j].contains(id)) {
+                    continue candidates;
+                }
+            }
+            // Trigrams can match out of order, confirm the real substring
+            if (values.get(id).contains(normalized)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static String normalize(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    private static long trigram(String value, int offset) {
+        return ((long) value.charAt(offset) << 32) | ((long) value.charAt(offset + 1) << 16) | value.charAt(offset + 2);
+    }
+
+    /**
+     * Sorted set of ids backed by a growable long array
+     */
+    private static final class PostingList {
+
+        private long[] ids = new long[4];
+        private int size;
+
+        void add(long id) {
+            // Ids mostly arrive in ascending order (startup load, new rows)
+            if (size == 0 || ids[size - 1] < id) {
+                grow();
+                ids[size++] = id;
+                return;
+            }
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                return;
+            }
+            int insertAt = -position - 1;
+            grow();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            size--;
+            return true;
+        }
+
+        boolean contains(long id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+
+        private void grow() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
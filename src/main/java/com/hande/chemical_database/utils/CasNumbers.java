@@ -0,0 +1,59 @@
+package com.hande.chemical_database.utils;
+
+/**
+ * CAS registry number canonicalization: "64-17-5", " 64 17 5", "0000064175" and
+ * "64.17.5" all become "64-17-5". A CAS number is 2-7 digits, 2 digits and a check
+ * digit; the check digit is the sum of the other digits, weighted 1, 2, 3... from the
+ * right, modulo 10.
+ */
+public final class CasNumbers {
+
+    private static final int MIN_DIGITS = 5;
+    private static final int MAX_DIGITS = 10;
+
+    private CasNumbers() {
+    }
+
+    /**
+     * Canonical "NNNNNNN-NN-N" form, or null if the value is blank, malformed or fails
+     * the checksum
+     */
+    public static String normalize(String raw) {
+        if (raw == null) {
+            return null;
+        }
+        StringBuilder digits = new StringBuilder(MAX_DIGITS);
+        for (int i = 0; i < raw.length(); i++) {
+            char c = raw.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digits.length() == 0 && c == '0') {
+                    continue; // leading zero padding
+                }
+                if (digits.length() == MAX_DIGITS) {
+                    return null;
+                }
+                digits.append(c);
+            } else if (c != '-' && c != '.' && !Character.isWhitespace(c)) {
+                return null;
+            }
+        }
+        if (digits.length() < MIN_DIGITS || !checksumMatches(digits)) {
+            return null;
+        }
+        int length = digits.length();
+        return digits.substring(0, length - 3) + '-' + digits.substring(length - 3, length - 1) + '-' + digits.charAt(length - 1);
+    }
+
+    public static boolean isValid(String raw) {
+        return normalize(raw) != null;
+    }
+
+    private static boolean checksumMatches(CharSequence digits) {
+        int last = digits.length() - 1;
+        int sum = 0;
+        for (int i = last - 1, weight = 1; i >= 0; i--, weight++) {
+            sum += (digits.charAt(i) - '0') * weight;
+        }
+        return sum % 10 == digits.charAt(last) - '0';
+    }
+}
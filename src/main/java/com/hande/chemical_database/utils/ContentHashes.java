@@ -0,0 +1,44 @@
+package com.hande.chemical_database.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over the columns a CSV import can write, stored in content_hash so an upsert
+ * import can tell unchanged rows apart without comparing every column. Keys, QR codes,
+ * audit fields and derived columns (cas_no_normalized) are not part of the hash; the
+ * entities pick the values (Chemicals / StudyList.importedFieldsHash).
+ */
+public final class ContentHashes {
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte PRESENT_VALUE = 1;
+    private static final byte SEPARATOR = 0x1F;
+
+    private ContentHashes() {
+    }
+
+    /**
+     * Hash of the values in order; null and "" hash differently
+     */
+    public static String of(Object... values) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        for (Object value : values) {
+            if (value == null) {
+                digest.update(NULL_VALUE);
+            } else {
+                digest.update(PRESENT_VALUE);
+                digest.update(value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update(SEPARATOR);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
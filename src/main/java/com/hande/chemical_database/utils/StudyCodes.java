@@ -0,0 +1,21 @@
+package com.hande.chemical_database.utils;
+
+import java.util.Locale;
+
+/**
+ * Study codes are unique ignoring case. The lower-cased key is stored in
+ * study_list.study_code_key so duplicate checks are indexed equality lookups
+ * instead of LOWER(study_code) scans.
+ */
+public final class StudyCodes {
+
+    private StudyCodes() {
+    }
+
+    /**
+     * Lookup key for a study code, or null if the code is null
+     */
+    public static String key(String studyCode) {
+        return studyCode != null ? studyCode.trim().toLowerCase(Locale.ROOT) : null;
+    }
+}
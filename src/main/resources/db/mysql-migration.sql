@@ -0,0 +1,42 @@
+-- MySQL migration for databases running with spring.jpa.hibernate.ddl-auto=validate (prod profile).
+-- With ddl-auto=update Hibernate and the startup migrations (QRCodeImageMigration,
+-- IdSequenceMigration, CasNumberBackfill, StudyCodeKeyBackfill) apply these changes on their own.
+
+-- QR code PNGs moved out of chemicals / study_list (copy is done by QRCodeImageMigration)
+CREATE TABLE IF NOT EXISTS qr_code_images (
+    qr_code VARCHAR(36) PRIMARY KEY,
+    image LONGBLOB NOT NULL,
+    created_at DATETIME(6)
+);
+
+-- Id sequences: MySQL has no sequences, Hibernate emulates them with one-row tables.
+-- next_val must stay above MAX(id); IdSequenceMigration realigns it on startup.
+CREATE TABLE IF NOT EXISTS chemicals_seq (next_val BIGINT);
+INSERT INTO chemicals_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM chemicals
+WHERE NOT EXISTS (SELECT 1 FROM chemicals_seq);
+
+CREATE TABLE IF NOT EXISTS study_list_seq (next_val BIGINT);
+INSERT INTO study_list_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 50 FROM study_list
+WHERE NOT EXISTS (SELECT 1 FROM study_list_seq);
+
+-- Canonical CAS numbers for indexed lookups (filled by CasNumberBackfill, then on every entity write)
+ALTER TABLE chemicals ADD COLUMN cas_no_normalized VARCHAR(12);
+CREATE INDEX idx_chemicals_cas_no_normalized ON chemicals (cas_no_normalized);
+
+-- Combined search: equality/range filter first, then the name sort (see Chemicals)
+CREATE INDEX idx_chemicals_toxic_state_name ON chemicals (toxic_state, name);
+CREATE INDEX idx_chemicals_order_date_name ON chemicals (order_date, name);
+
+-- Producer facet of the combined search (GROUP BY producer)
+CREATE INDEX idx_chemicals_producer ON chemicals (producer);
+
+-- SHA-256 of the CSV-importable columns, written on every entity insert/update.
+-- Rows from before this column read as changed once in the first upsert import.
+ALTER TABLE chemicals ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE study_list ADD COLUMN content_hash VARCHAR(64);
+
+-- Lower-cased study codes for indexed duplicate checks (filled by StudyCodeKeyBackfill, then on every entity write)
+ALTER TABLE study_list ADD COLUMN study_code_key VARCHAR(100);
+CREATE INDEX idx_study_list_study_code_key ON study_list (study_code_key);
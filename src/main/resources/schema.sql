@@ -3,6 +3,9 @@
 DROP TABLE IF EXISTS chemicals;
 DROP TABLE IF EXISTS user_profile;
 DROP TABLE IF EXISTS study_list;
+DROP TABLE IF EXISTS qr_code_images;
+DROP SEQUENCE IF EXISTS chemicals_seq;
+DROP SEQUENCE IF EXISTS study_list_seq;
 
 -- Create user_profile table
 CREATE TABLE user_profile (
@@ -20,11 +23,18 @@ CREATE TABLE user_profile (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
 );
 
+-- Id sequences for chemicals and study_list (pooled, must match allocationSize = 50 on the entities).
+-- JPA inserts take ids from these so Hibernate can batch them; AUTO_INCREMENT stays for plain SQL inserts
+-- and IdSequenceMigration moves the sequences past MAX(id) on startup.
+CREATE SEQUENCE chemicals_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE study_list_seq START WITH 1 INCREMENT BY 50;
+
 -- Create chemicals table with QR code fields
 CREATE TABLE chemicals (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     name VARCHAR(255) UNIQUE NOT NULL,
     cas_no VARCHAR(50),
+    cas_no_normalized VARCHAR(12),
     lot_no VARCHAR(50),
     producer VARCHAR(255),
     storage VARCHAR(255) NOT NULL,
@@ -33,8 +43,8 @@ CREATE TABLE chemicals (
     responsible VARCHAR(255),
     order_date DATE,
     weight VARCHAR(50),
+    content_hash VARCHAR(64),
     qr_code VARCHAR(36) UNIQUE,
-    qr_code_image LONGVARBINARY,
     qr_code_generated_at TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     created_by VARCHAR(255),
@@ -45,6 +55,7 @@ CREATE TABLE chemicals (
 CREATE TABLE study_list (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     study_code VARCHAR(100) UNIQUE NOT NULL,
+    study_code_key VARCHAR(100),
     document_codes VARCHAR(500),
     material_type VARCHAR(100),
     study_level VARCHAR(10),
@@ -54,8 +65,8 @@ CREATE TABLE study_list (
     object_of_study VARCHAR(500),
     responsible_person VARCHAR(100),
     status VARCHAR(50),
+    content_hash VARCHAR(64),
     qr_code VARCHAR(36) UNIQUE,
-    qr_code_image LONGVARBINARY,
     qr_code_generated_at TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     created_by VARCHAR(255),
@@ -63,8 +74,17 @@ CREATE TABLE study_list (
     updated_by VARCHAR(255)
 );
 
+-- QR code PNGs for chemicals and studies, keyed by the qr_code UUID of the owning row.
+-- Kept out of the entity tables so list queries never read blob bytes.
+CREATE TABLE qr_code_images (
+    qr_code VARCHAR(36) PRIMARY KEY,
+    image LONGVARBINARY NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_study_list_study_code ON study_list(study_code);
+CREATE INDEX IF NOT EXISTS idx_study_list_study_code_key ON study_list(study_code_key);
 CREATE INDEX IF NOT EXISTS idx_study_list_material_type ON study_list(material_type);
 CREATE INDEX IF NOT EXISTS idx_study_list_responsible_person ON study_list(responsible_person);
 CREATE INDEX IF NOT EXISTS idx_study_list_status ON study_list(status);
@@ -75,11 +95,16 @@ CREATE INDEX IF NOT EXISTS idx_study_list_risk_level ON study_list(risk_level);
 -- Create indexes for better performance
 CREATE INDEX IF NOT EXISTS idx_chemicals_name ON chemicals(name);
 CREATE INDEX IF NOT EXISTS idx_chemicals_cas_no ON chemicals(cas_no);
+CREATE INDEX IF NOT EXISTS idx_chemicals_cas_no_normalized ON chemicals(cas_no_normalized);
 CREATE INDEX IF NOT EXISTS idx_chemicals_storage ON chemicals(storage);
 CREATE INDEX IF NOT EXISTS idx_chemicals_responsible ON chemicals(responsible);
-CREATE INDEX IF NOT EXISTS idx_chemicals_toxic_state ON chemicals(toxic_state);
+CREATE INDEX IF NOT EXISTS idx_chemicals_toxic_state_name ON chemicals(toxic_state, name);
 CREATE INDEX IF NOT EXISTS idx_chemicals_qr_code ON chemicals(qr_code);
-CREATE INDEX IF NOT EXISTS idx_chemicals_order_date ON chemicals(order_date);
+CREATE INDEX IF NOT EXISTS idx_chemicals_order_date_name ON chemicals(order_date, name);
+CREATE INDEX IF NOT EXISTS idx_chemicals_producer ON chemicals(producer);
+-- Superseded by the (toxic_state, name) and (order_date, name) indexes above
+DROP INDEX IF EXISTS idx_chemicals_toxic_state;
+DROP INDEX IF EXISTS idx_chemicals_order_date;
 CREATE INDEX IF NOT EXISTS idx_user_profile_username ON user_profile(username);
 CREATE INDEX IF NOT EXISTS idx_user_profile_email ON user_profile(email);
 CREATE INDEX IF NOT EXISTS idx_user_profile_position ON user_profile(position);
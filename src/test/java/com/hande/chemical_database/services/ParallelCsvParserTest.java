@@ -0,0 +1,252 @@
+package com.hande.chemical_database.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * ParallelCsvParser must hand out exactly what a single CsvTokenizer over the whole input
+ * produces: same header, records, line numbers, warnings and warning order. The smallest
+ * segment size (1024 chars, 4 threads) makes every input below span many segments and
+ * block refills, so record boundaries land on segment and block ends.
+ */
+class ParallelCsvParserTest {
+
+    private static final int SEGMENT_CHARS = 1024;
+    private static final int THREADS = 4;
+    private static final int BLOCK_CHARS = SEGMENT_CHARS * THREADS;
+
+    private final ParallelCsvParser parser = new ParallelCsvParser(true, THREADS, SEGMENT_CHARS);
+
+    @AfterEach
+    void shutdown() {
+        parser.shutdown();
+    }
+
+    @Test
+    void quotedFieldsWithDelimitersEscapedQuotesAndLineBreaks() throws IOException {
+        StringBuilder csv = new StringBuilder("name,info,storage\n");
+        for (int i = 0; i < 500; i++) {
+            csv.append("Chemical ").append(i)
+                    .append(",\"has, comma and \"\"quotes\"\"\nand a second line\",Cabinet ").append(i % 7)
+                    .append('\n');
+        }
+        assertSameAsSequential(csv.toString());
+    }
+
+    @Test
+    void lineEndingsBlankLinesAndBom() throws IOException {
+        String[] endings = {"\n", "\r\n", "\r"};
+        StringBuilder csv = new StringBuilder("\uFEFFname;casNo;weight\r\n");
+        for (int i = 0; i < 2000; i++) {
+            csv.append("Chemical ").append(i).append(";64-17-5;").append(i).append(" g")
+                    .append(endings[i % endings.length]);
+            if (i % 11 == 0) {
+                csv.append(endings[(i / 11) % endings.length]).append("  ;  ;").append(endings[i % endings.length]);
+            }
+        }
+        assertSameAsSequential(csv.toString());
+    }
+
+    @Test
+    void lastRecordWithoutLineBreak() throws IOException {
+        StringBuilder csv = new StringBuilder("name,storage\n");
+        for (int i = 0; i < 1000; i++) {
+            csv.append("Chemical ").append(i).append(",Cabinet\n");
+        }
+        csv.append("Last,\"unterminated");
+        assertSameAsSequential(csv.toString());
+    }
+
+    @Test
+    void crlfAndEscapedQuoteSplitAcrossBlockEnd() throws IOException {
+        String header = "name,info\n";
+        // Move a CRLF, and separately an escaped quote, over every offset around the first block end
+        for (int shift = -4; shift <= 4; shift++) {
+            int padding = BLOCK_CHARS - header.length() - "x,".length() - 1 + shift;
+
+            String crlf = header + "x," + "a".repeat(padding) + "\r\nnext,row\r\nlast,row\r\n";
+            assertSameAsSequential(crlf);
+
+            String quote = header + "x,\"" + "a".repeat(padding) + "\"\"b\"\r\nnext,row\n";
+            assertSameAsSequential(quote);
+
+            String lone = header + "x," + "a".repeat(padding) + "\rnext,row\rlast,row";
+            assertSameAsSequential(lone);
+        }
+    }
+
+    @Test
+    void recordLongerThanABlock() throws IOException {
+        String csv = "name,info\nfirst,row\nlong,\"" + "line\n".repeat(3 * BLOCK_CHARS / 5) + "\"\nafter,row\n";
+        assertSameAsSequential(csv);
+    }
+
+    @Test
+    void headerAfterBlankLines() throws IOException {
+        StringBuilder csv = new StringBuilder("\n\r\n   \nname,storage\n");
+        for (int i = 0; i < 800; i++) {
+            csv.append("Chemical ").append(i).append(",Cabinet\n");
+        }
+        assertSameAsSequential(csv.toString());
+    }
+
+    @Test
+    void noRecordsAfterHeaderOrEmptyInput() throws IOException {
+        assertSameAsSequential("name,storage\n");
+        assertSameAsSequential("\uFEFF");
+        assertSameAsSequential("");
+        assertSameAsSequential("\n\n\r\n");
+    }
+
+    @Test
+    void randomInputs() throws IOException {
+        Random random = new Random(20240517L);
+        for (int i = 0; i < 300; i++) {
+            assertSameAsSequential(randomCsv(random));
+        }
+    }
+
+    private void assertSameAsSequential(String csv) throws IOException {
+        Result expected = parseSequentially(csv);
+        Result actual = parseInParallel(csv);
+
+        assertEquals(expected.delimiter, actual.delimiter, "delimiter");
+        assertArrayEquals(expected.headers, actual.headers, "header");
+        assertEquals(expected.records, actual.records, "records");
+        assertEquals(expected.warnings, actual.warnings, "warnings");
+        assertEquals(expected.invalidRows, actual.invalidRows, "invalid rows");
+    }
+
+    private static Result parseSequentially(String csv) throws IOException {
+        Result result = new Result();
+        CsvTokenizer tokenizer = new CsvTokenizer(new StringReader(csv));
+        CsvRow row = new CsvRow();
+        if (!tokenizer.next(row)) {
+            return result;
+        }
+        result.delimiter = tokenizer.getDelimiter();
+        result.headers = row.toArray();
+        while (tokenizer.next(row)) {
+            String record = map(row, result.warnings::add);
+            if (record != null) {
+                result.records.add(record);
+            } else {
+                result.invalidRows++;
+            }
+        }
+        return result;
+    }
+
+    private Result parseInParallel(String csv) throws IOException {
+        Result result = new Result();
+        int[] reported = {0};
+        result.invalidRows = parser.parse(new StringReader(csv), (headers, delimiter) -> {
+            result.headers = headers;
+            result.delimiter = delimiter;
+            return ParallelCsvParserTest::map;
+        }, result.records::add, result.warnings::add, rejected -> reported[0] += rejected);
+        assertEquals(result.invalidRows, reported[0], "invalid rows reported along the way");
+        return result;
+    }
+
+    // Rejects rows whose first field is empty and warns about every row with a quote in it
+    private static String map(CsvRow row, Consumer<String> warnings) {
+        String[] fields = row.toArray();
+        String record = row.getLineNumber() + ":" + Arrays.toString(fields);
+        if (record.indexOf('"') >= 0) {
+            warnings.accept("Line " + row.getLineNumber() + " has a quote");
+        }
+        if (fields[0].isEmpty()) {
+            warnings.accept("Line " + row.getLineNumber() + " has no name");
+            return null;
+        }
+        return record;
+    }
+
+    private static String randomCsv(Random random) {
+        String[] endings = {"\n", "\r\n", "\r"};
+        char delimiter = random.nextBoolean() ? ',' : ';';
+        StringBuilder csv = new StringBuilder();
+        if (random.nextInt(4) == 0) {
+            csv.append('\uFEFF');
+        }
+        csv.append("name").append(delimiter).append("info").append(delimiter).append("storage")
+                .append(endings[random.nextInt(endings.length)]);
+
+        int rows = 200 + random.nextInt(1500);
+        for (int i = 0; i < rows; i++) {
+            int fields = 1 + random.nextInt(4);
+            for (int f = 0; f < fields; f++) {
+                if (f > 0) {
+                    csv.append(delimiter);
+                }
+                appendRandomField(csv, random, delimiter, endings);
+            }
+            if (i < rows - 1 || random.nextBoolean()) {
+                csv.append(endings[random.nextInt(endings.length)]);
+            }
+        }
+        return csv.toString();
+    }
+
+    private static void appendRandomField(StringBuilder csv, Random random, char delimiter, String[] endings) {
+        int length = random.nextInt(30);
+        switch (random.nextInt(5)) {
+            case 0:
+                // Quoted with delimiters, escaped quotes and line breaks, sometimes after whitespace
+                if (random.nextBoolean()) {
+                    csv.append("  ");
+                }
+                csv.append('"');
+                for (int i = 0; i < length; i++) {
+                    int pick = random.nextInt(12);
+                    if (pick == 0) {
+                        csv.append("\"\"");
+                    } else if (pick == 1) {
+                        csv.append(endings[random.nextInt(endings.length)]);
+                    } else if (pick == 2) {
+                        csv.append(delimiter);
+                    } else {
+                        csv.append((char) ('a' + random.nextInt(26)));
+                    }
+                }
+                csv.append('"');
+                if (random.nextInt(4) == 0) {
+                    csv.append("tail");
+                }
+                break;
+            case 1:
+                // Stray quote inside an unquoted field is literal text
+                csv.append("ab\"c");
+                break;
+            case 2:
+                // Empty or whitespace only, makes blank records and rejected rows
+                csv.append(random.nextBoolean() ? "" : "   ");
+                break;
+            default:
+                for (int i = 0; i < length; i++) {
+                    csv.append((char) ('a' + random.nextInt(26)));
+                }
+                break;
+        }
+    }
+
+    private static final class Result {
+        private char delimiter;
+        private String[] headers;
+        private final List<String> records = new ArrayList<>();
+        private final List<String> warnings = new ArrayList<>();
+        private int invalidRows;
+    }
+}